@@ -20,6 +20,7 @@ public class Main{
 
         String[] datasets = {"TSPA", "TSPB"};
         float[] stoppingTimes = {15.9396f, 16.1847f};
+        boolean reduceInstance = false; // solve instances shrunk by InstanceReduction
         for (String data: datasets) {
             float stoppingTime;
             if (data.equals("TSPA")) {
@@ -32,6 +33,16 @@ public class Main{
             int[][] objectiveMatrix = parser.getObjectiveMatrix();
             List<Node> nodes = parser.getNodes();
             int[] costs = nodes.stream().mapToInt(Node::getCost).toArray();
+            InstanceReduction reduction = null;
+            if (reduceInstance) {
+                // fix nodes by the bounds and the local search samples, then solve the smaller instance
+                reduction = new InstanceReduction(distanceMatrix, objectiveMatrix, costs, nodes, true);
+                System.out.println(data + ": fixed out = " + reduction.getFixedOutCount() + ", fixed in = " + reduction.getFixedInCount());
+                distanceMatrix = reduction.getDistanceMatrix();
+                objectiveMatrix = reduction.getObjectiveMatrix();
+                costs = reduction.getCosts();
+                nodes = reduction.getNodes();
+            }
             GenericSolver solver = new IteratedLocalSearchSolver(
                     distanceMatrix,
                     objectiveMatrix,
@@ -39,6 +50,7 @@ public class Main{
                     nodes,
                     stoppingTime
             );
+            solver.setInstanceReduction(reduction); // results are mapped back to the original node IDs
             Experiment experiment = new Experiment(solver, data, 20);
             experiment.runExperiment();
             experiment.printStats();
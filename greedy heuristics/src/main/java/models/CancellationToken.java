@@ -0,0 +1,16 @@
+package main.java.models;
+
+/**
+ * Flag that lets another thread ask a running solver to stop; the solver returns its incumbent.
+ */
+public class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,91 @@
+package main.java.models;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded archive of visited local optima, keyed by their tour hash.
+ * It remembers the scores of the last memorySize distinct optima, so a revisited optimum is recognized in O(1)
+ * without recomputing its score, and keeps the eliteSize best distinct solutions (e.g. for path relinking).
+ * Also counts visits and duplicates so solvers can report the duplicate rate.
+ */
+public class EliteArchive {
+    public static final int DEFAULT_MEMORY_SIZE = 10000;
+
+    private final int eliteSize;
+    private final Map<Long, Integer> seenScores;
+    private final List<Solution> elites = new ArrayList<>();
+    private final List<Long> eliteHashes = new ArrayList<>();
+
+    private int visits;
+    private int duplicates;
+
+    public EliteArchive(int eliteSize) {
+        this(eliteSize, DEFAULT_MEMORY_SIZE);
+    }
+
+    public EliteArchive(int eliteSize, int memorySize) {
+        this.eliteSize = eliteSize;
+        this.seenScores = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                return size() > memorySize;
+            }
+        };
+    }
+
+    /**
+     * Looks the hash up among the remembered optima and counts the visit.
+     * @return score of the remembered optimum, or null if the hash was not seen (call add then)
+     */
+    public Integer findDuplicate(long hash) {
+        Integer score = seenScores.get(hash);
+        if (score != null) {
+            visits++;
+            duplicates++;
+        }
+        return score;
+    }
+
+    /**
+     * Registers a new optimum and counts the visit; it enters the elites if it is among the best ones.
+     */
+    public void add(long hash, Solution solution, int score) {
+        visits++;
+        seenScores.put(hash, score);
+        if (eliteSize == 0 || eliteHashes.contains(hash)) {
+            return;
+        }
+        int index = 0;
+        while (index < elites.size() && elites.get(index).getScore() <= score) {
+            index++;
+        }
+        if (index >= eliteSize) {
+            return;
+        }
+        elites.add(index, solution);
+        eliteHashes.add(index, hash);
+        if (elites.size() > eliteSize) {
+            elites.remove(elites.size() - 1);
+            eliteHashes.remove(eliteHashes.size() - 1);
+        }
+    }
+
+    public List<Solution> getElites() {
+        return elites;
+    }
+
+    public int getVisits() {
+        return visits;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public float getDuplicateRate() {
+        return visits == 0 ? 0.0f : (float) duplicates / visits;
+    }
+}
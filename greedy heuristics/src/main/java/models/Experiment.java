@@ -1,13 +1,20 @@
 package main.java.models;
 
+import main.java.solver.AdaptiveLNSSolver;
+import main.java.solver.ConstructiveSolver;
 import main.java.solver.GenericSolver;
+import main.java.solver.InstanceReduction;
 import main.java.solver.IteratedLocalSearchSolver;
+import main.java.solver.PortfolioSolver;
+import main.java.utils.LagrangianLowerBound;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 
 
@@ -23,6 +30,13 @@ public class Experiment {
     private int minLSRuns = Integer.MAX_VALUE;
     private int maxLSRuns = Integer.MIN_VALUE;
     private int totalLSRuns = 0; // for computing average
+    // only of ALNS solver - operator statistics summed over all runs
+    private OperatorStats[] operatorStats;
+    // only of solvers with an elite archive - visited and revisited local optima summed over all runs
+    private long archiveVisits;
+    private long archiveDuplicates;
+    // only of portfolio solver - improvements of the shared incumbent per member solver, summed over all runs
+    private final Map<String, Integer> improvementsBySolver = new LinkedHashMap<>();
 
 
     public Experiment(GenericSolver solver, String datasetName) {
@@ -46,9 +60,26 @@ public class Experiment {
         return solutionScores;
     }
 
+    public float getDuplicateRate() {
+        return archiveVisits == 0 ? 0.0f : (float) archiveDuplicates / archiveVisits;
+    }
+
+    /**
+     * Lower bound of the original instance, also when the solver works on a reduced one.
+     */
+    private LagrangianLowerBound getLowerBound() {
+        InstanceReduction reduction = solver.getInstanceReduction();
+        if (reduction != null) {
+            return reduction.getLowerBound();
+        }
+        return LagrangianLowerBound.forInstance(solver.getDistanceMatrix(), solver.getCosts());
+    }
+
     /**
      * Function to run the experiment by solving the problem from each possible starting node.
      * It records the time taken and score for each solution, and keeps track of the best solution found.
+     * Start IDs are nodes of the original instance: on a reduced instance each start is mapped to the same node,
+     * or to the nearest kept node if it was fixed out (see InstanceReduction.getStartNodeID).
      */
     public void runExperiment() {
         int nodesCount = solver.getObjectiveMatrix().length;
@@ -56,16 +87,40 @@ public class Experiment {
         solutionScores = new int[maxIterations];
         solutionIters = new int[maxIterations];
         bestSolution = null;
+        operatorStats = null;
+        archiveVisits = 0;
+        archiveDuplicates = 0;
+        improvementsBySolver.clear();
 
         int barWidth = 40;
 
+        InstanceReduction reduction = solver.getInstanceReduction();
+        int[] startNodeIDs = new int[maxIterations];
+        for (int start = 0; start < maxIterations; start++) {
+            startNodeIDs[start] = reduction != null ? reduction.getStartNodeID(start) : start;
+        }
+
+        // construction heuristics build all start nodes as one parallel batch; the loop below only collects them,
+        // and every start is charged the batch wall time per start (see ConstructiveSolver.getSolutions)
+        Solution[] batchSolutions = null;
+        if (solver instanceof ConstructiveSolver constructiveSolver) {
+            batchSolutions = constructiveSolver.getSolutions(startNodeIDs, solutionTimes);
+        }
+
         for (int startNodeID = 0; startNodeID < maxIterations; startNodeID++) {
-            long startTime = System.nanoTime();
-            Solution solution = solver.getSolution(startNodeID);
-            long endTime = System.nanoTime();
+            Solution solution;
+            if (batchSolutions != null) {
+                solution = batchSolutions[startNodeID];
+            } else {
+                long startTime = System.nanoTime();
+                solution = solver.getSolution(startNodeIDs[startNodeID]);
+                long endTime = System.nanoTime();
+                solutionTimes[startNodeID] = (endTime - startTime) / 1_000_000_000.0f;
+            }
+            if (reduction != null) {
+                solution = reduction.toOriginal(solution); // saved paths use the original node IDs
+            }
 
-            float durationInSeconds = (endTime - startTime) / 1_000_000_000.0f;
-            solutionTimes[startNodeID] = durationInSeconds;
             int score = solution.getScore();
             solutionScores[startNodeID] = score;
             solutionIters[startNodeID] = solution.getIterationCount();
@@ -73,7 +128,7 @@ public class Experiment {
             if (bestSolution == null || score < bestSolution.getScore()) {
                 bestSolution = solution;
             }
-            if (solver.getMethodName().equals("Iterated Local Search") && solver instanceof IteratedLocalSearchSolver) {
+            if (solver instanceof IteratedLocalSearchSolver) {
                 IteratedLocalSearchSolver ilsSolver = (IteratedLocalSearchSolver) solver;
                 int lsRuns = ilsSolver.getTotalLSRuns();
                 totalLSRuns += lsRuns;
@@ -81,6 +136,20 @@ public class Experiment {
                 if (lsRuns > maxLSRuns) maxLSRuns = lsRuns;
                 ilsSolver.setTotalLSRuns(0); // reset for next iteration
             }
+            if (solver instanceof AdaptiveLNSSolver alnsSolver) {
+                collectOperatorStats(alnsSolver);
+                alnsSolver.resetOperatorStats(); // reset for next iteration
+            }
+            if (solver instanceof PortfolioSolver portfolioSolver) {
+                for (ImprovementRecord record : portfolioSolver.getImprovementLog()) {
+                    improvementsBySolver.merge(record.getMethodName(), 1, Integer::sum);
+                }
+            }
+            EliteArchive eliteArchive = solver.getEliteArchive();
+            if (eliteArchive != null) {
+                archiveVisits += eliteArchive.getVisits();
+                archiveDuplicates += eliteArchive.getDuplicates();
+            }
 
             // --- Progress bar update ---
             double progress = (startNodeID + 1) / (double) maxIterations;
@@ -94,6 +163,37 @@ public class Experiment {
         System.out.println("\nDone!");
     }
 
+    private void collectOperatorStats(AdaptiveLNSSolver alnsSolver) {
+        OperatorStats[] destroyStats = alnsSolver.getDestroyStats();
+        OperatorStats[] repairStats = alnsSolver.getRepairStats();
+        if (operatorStats == null) {
+            operatorStats = new OperatorStats[destroyStats.length + repairStats.length];
+            for (int i = 0; i < destroyStats.length; i++) {
+                operatorStats[i] = new OperatorStats(destroyStats[i].getName(), 0.0);
+            }
+            for (int i = 0; i < repairStats.length; i++) {
+                operatorStats[destroyStats.length + i] = new OperatorStats(repairStats[i].getName(), 0.0);
+            }
+        }
+        for (int i = 0; i < destroyStats.length; i++) {
+            operatorStats[i].merge(destroyStats[i]);
+        }
+        for (int i = 0; i < repairStats.length; i++) {
+            operatorStats[destroyStats.length + i].merge(repairStats[i]);
+        }
+    }
+
+    /**
+     * One line per ALNS operator: calls, improving calls, new bests, improvement per ms and final weight
+     * (the weight is averaged over the runs of the experiment).
+     */
+    private String formatOperatorStats(OperatorStats stats) {
+        return String.format(Locale.US,
+                "%s: calls = %d, improving = %d, new best = %d, improvement/ms = %.4f, avg final weight = %.4f%n",
+                stats.getName(), stats.getCalls(), stats.getImprovements(), stats.getNewBests(),
+                stats.getImprovementPerMs(), stats.getWeight() / maxIterations);
+    }
+
     /**
      * Print statistics of experiment such as min, max and average time and score
      * Visualize best solution found
@@ -142,10 +242,25 @@ public class Experiment {
         System.out.println("Time (seconds): Min = " + minTime + ", Max = " + maxTime + ", Avg = " + avgTime);
         System.out.println("Score: Min = " + minScore + ", Max = " + maxScore + ", Avg = " + avgScore);
         System.out.println("Iterations: Min = " + minIters + ", Max = " + maxIters + ", Avg = " + (totalIters / solutionIters.length));
-        if (solver.getMethodName().equals("Iterated Local Search")) {
+        if (solver instanceof IteratedLocalSearchSolver) {
             float avgLSRuns = totalLSRuns / (float) maxIterations;
             System.out.println("Local Search runs: Min = " + minLSRuns + ", Max = " + maxLSRuns + ", Avg = " + avgLSRuns);
         }
+        if (operatorStats != null) {
+            for (OperatorStats stats : operatorStats) {
+                System.out.print(formatOperatorStats(stats));
+            }
+        }
+        LagrangianLowerBound lowerBound = getLowerBound();
+        System.out.println("Gap to lower bound " + lowerBound.getBound() + ": Min = " + lowerBound.getGap(minScore)
+                + ", Max = " + lowerBound.getGap(maxScore) + ", Avg = " + lowerBound.getGap(Math.round(avgScore)));
+        if (!improvementsBySolver.isEmpty()) {
+            System.out.println("Improvements by solver: " + improvementsBySolver);
+        }
+        if (archiveVisits > 0) {
+            System.out.println("Duplicate local optima: " + archiveDuplicates + " / " + archiveVisits
+                    + " (" + getDuplicateRate() + ")");
+        }
 
 
         writeResultsToFile(baseFolder, minTime, maxTime, avgTime, minScore, maxScore, avgScore, minIters, maxIters, avgIters);
@@ -172,12 +287,31 @@ public class Experiment {
             writer.write(String.format(Locale.US,
                     "Iterations: %.2f (%d, %d)%n",
                     avgIters, minIters, maxIters));
-            if (solver.getMethodName().equals("Iterated Local Search")) {
+            if (solver instanceof IteratedLocalSearchSolver) {
                 float avgLSRuns = (float) totalLSRuns / maxIterations;
                 writer.write(String.format(Locale.US,
                         "LS Runs: %.2f (%d, %d)%n",
                         avgLSRuns, minLSRuns, maxLSRuns));
             }
+            if (operatorStats != null) {
+                writer.write("Operators:\n");
+                for (OperatorStats stats : operatorStats) {
+                    writer.write("  " + formatOperatorStats(stats));
+                }
+            }
+            LagrangianLowerBound lowerBound = getLowerBound();
+            writer.write(String.format(Locale.US,
+                    "Gap to lower bound %d: %.4f (%.4f, %.4f)%n",
+                    lowerBound.getBound(), lowerBound.getGap(Math.round(avgScore)),
+                    lowerBound.getGap(minScore), lowerBound.getGap(maxScore)));
+            if (!improvementsBySolver.isEmpty()) {
+                writer.write("Improvements by solver: " + improvementsBySolver + "\n");
+            }
+            if (archiveVisits > 0) {
+                writer.write(String.format(Locale.US,
+                        "Duplicate local optima: %.4f (%d / %d)%n",
+                        getDuplicateRate(), archiveDuplicates, archiveVisits));
+            }
             writer.write("\n");
         } catch (IOException e) {
             e.printStackTrace();
@@ -0,0 +1,14 @@
+package main.java.models;
+
+/**
+ * Callback for new best solutions found during a solver run.
+ */
+@FunctionalInterface
+public interface ImprovementListener {
+    /**
+     * @param methodName name of the solver that found the solution
+     * @param solution the new best solution
+     * @param elapsedNanos time since the start of the run
+     */
+    void onImprovement(String methodName, Solution solution, long elapsedNanos);
+}
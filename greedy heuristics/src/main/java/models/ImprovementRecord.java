@@ -0,0 +1,33 @@
+package main.java.models;
+
+/**
+ * One improvement of a shared incumbent: which solver found it, its score and when (since the start of the run).
+ */
+public class ImprovementRecord {
+    private final String methodName;
+    private final int score;
+    private final long elapsedNanos;
+
+    public ImprovementRecord(String methodName, int score, long elapsedNanos) {
+        this.methodName = methodName;
+        this.score = score;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.3fs %s %d", elapsedNanos / 1_000_000_000.0, methodName, score);
+    }
+}
@@ -1,11 +0,0 @@
-package main.java.models;
-
-public class InsertionInfo {
-    public int index;
-    public int nodeId;
-
-    public InsertionInfo(int index, int nodeId) {
-        this.index = index;
-        this.nodeId = nodeId;
-    }
-}
\ No newline at end of file
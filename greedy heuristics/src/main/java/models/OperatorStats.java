@@ -0,0 +1,109 @@
+package main.java.models;
+
+/**
+ * Bookkeeping for a single destroy or repair operator of the adaptive LNS.
+ * Keeps lifetime totals (for reporting) and per-segment totals (for the online weight update).
+ */
+public class OperatorStats {
+    private final String name;
+    private double weight;
+
+    private int calls;
+    private int improvements; // iterations in which the operator improved the current solution
+    private int newBests;     // iterations in which the operator produced a new best solution
+    private long totalImprovement;
+    private long totalTimeNanos;
+
+    private long segmentImprovement;
+    private long segmentTimeNanos;
+
+    public OperatorStats(String name, double initialWeight) {
+        this.name = name;
+        this.weight = initialWeight;
+    }
+
+    public String getName() {
+        return name;
+    }
+    public double getWeight() {
+        return weight;
+    }
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+    public int getCalls() {
+        return calls;
+    }
+    public int getImprovements() {
+        return improvements;
+    }
+    public int getNewBests() {
+        return newBests;
+    }
+    public long getTotalImprovement() {
+        return totalImprovement;
+    }
+    public long getTotalTimeNanos() {
+        return totalTimeNanos;
+    }
+    public long getSegmentTimeNanos() {
+        return segmentTimeNanos;
+    }
+
+    /**
+     * Records one application of the operator.
+     * @param timeNanos time of the iteration the operator took part in
+     * @param improvement decrease of the current score (0 if the result was not better)
+     * @param newBest whether the result became the new best solution
+     */
+    public void record(long timeNanos, int improvement, boolean newBest) {
+        calls++;
+        totalTimeNanos += timeNanos;
+        segmentTimeNanos += timeNanos;
+        if (improvement > 0) {
+            improvements++;
+            totalImprovement += improvement;
+            segmentImprovement += improvement;
+        }
+        if (newBest) {
+            newBests++;
+        }
+    }
+
+    /**
+     * Improvement per millisecond collected since the last weight update.
+     */
+    public double getSegmentRate() {
+        if (segmentTimeNanos == 0) {
+            return 0.0;
+        }
+        return segmentImprovement / (segmentTimeNanos / 1_000_000.0);
+    }
+
+    /**
+     * Improvement per millisecond over the whole lifetime of the operator.
+     */
+    public double getImprovementPerMs() {
+        if (totalTimeNanos == 0) {
+            return 0.0;
+        }
+        return totalImprovement / (totalTimeNanos / 1_000_000.0);
+    }
+
+    public void resetSegment() {
+        segmentImprovement = 0;
+        segmentTimeNanos = 0;
+    }
+
+    /**
+     * Adds lifetime totals of another run of the same operator (used to aggregate over an experiment).
+     */
+    public void merge(OperatorStats other) {
+        calls += other.calls;
+        improvements += other.improvements;
+        newBests += other.newBests;
+        totalImprovement += other.totalImprovement;
+        totalTimeNanos += other.totalTimeNanos;
+        weight += other.weight;
+    }
+}
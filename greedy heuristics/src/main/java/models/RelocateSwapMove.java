@@ -0,0 +1,25 @@
+package main.java.models;
+
+/**
+ * Compound inter-route move: the start node leaves the cycle and the end node (from outside) is inserted on the
+ * edge insertAfterID - insertBeforeID of the cycle without the start node, which need not be where the start
+ * node was.
+ */
+public class RelocateSwapMove extends Move {
+    private final int insertAfterID;
+    private final int insertBeforeID;
+
+    public RelocateSwapMove(int startNodeID, int endNodeID, int insertAfterID, int insertBeforeID, int delta) {
+        super("Inter", "Relocate", startNodeID, endNodeID, delta);
+        this.insertAfterID = insertAfterID;
+        this.insertBeforeID = insertBeforeID;
+    }
+
+    public int getInsertAfterID() {
+        return insertAfterID;
+    }
+
+    public int getInsertBeforeID() {
+        return insertBeforeID;
+    }
+}
@@ -0,0 +1,52 @@
+package main.java.models;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Best solution shared by solvers running concurrently on the same instance.
+ * The solution and its score are swapped together with compare-and-set, so offers from different threads
+ * never lose a better solution and readers never see a score that does not belong to the solution.
+ */
+public class SharedIncumbent {
+
+    private static final class Entry {
+        private final Solution solution;
+        private final int score;
+
+        private Entry(Solution solution, int score) {
+            this.solution = solution;
+            this.score = score;
+        }
+    }
+
+    private final AtomicReference<Entry> best = new AtomicReference<>();
+
+    /**
+     * @return true if the solution became the new incumbent
+     */
+    public boolean offer(Solution solution, int score) {
+        Entry candidate = new Entry(solution, score);
+        while (true) {
+            Entry current = best.get();
+            if (current != null && current.score <= score) {
+                return false;
+            }
+            if (best.compareAndSet(current, candidate)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return the incumbent, or null if nothing was offered yet
+     */
+    public Solution getSolution() {
+        Entry current = best.get();
+        return current == null ? null : current.solution;
+    }
+
+    public int getScore() {
+        Entry current = best.get();
+        return current == null ? Integer.MAX_VALUE : current.score;
+    }
+}
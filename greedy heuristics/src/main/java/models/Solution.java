@@ -23,6 +23,8 @@ public class Solution {
     private int[] path; // Array of node IDs (indexes in nodesList) IMPORTANT: should start and end with the same node
     private String methodName;
     private int iterationCount;
+    private long tourHash; // Zobrist hash of the tour, see ZobristTourHasher
+    private boolean tourHashKnown;
 
     public Solution(List<Node> nodes, int[][] objectiveMatrix, int[][] distanceMatrix,
                     int[] costs, int[] path, String methodName) {
@@ -77,6 +79,10 @@ public class Solution {
         return path;
     }
 
+    public String getMethodName() {
+        return methodName;
+    }
+
     public int getIterationCount() {
         return iterationCount;
     }
@@ -85,6 +91,19 @@ public class Solution {
         this.iterationCount = iterationCount;
     }
 
+    public boolean hasTourHash() {
+        return tourHashKnown;
+    }
+
+    public long getTourHash() {
+        return tourHash;
+    }
+
+    public void setTourHash(long tourHash) {
+        this.tourHash = tourHash;
+        this.tourHashKnown = true;
+    }
+
     public void displaySolution() {
         SolutionDrawer drawer = new SolutionDrawer(nodes, path);
         JFrame frame = new JFrame("Solution");
@@ -0,0 +1,67 @@
+package main.java.models;
+
+/**
+ * Limits and callbacks of a single solver run, passed to GenericSolver.getSolution(startNodeID, request):
+ *  - deadline: System.nanoTime() value after which the solver returns its incumbent (Long.MAX_VALUE = none),
+ *    applied on top of the solver's own time budget,
+ *  - cancellation token: checked in the search loops, so the run can be stopped from another thread,
+ *  - improvement listener: notified with every new best solution,
+ *  - target score: the run stops as soon as a solution with this score or better is found.
+ * Requests are immutable; the with* methods return modified copies.
+ */
+public class SolveRequest {
+    public static final SolveRequest UNLIMITED = new SolveRequest(Long.MAX_VALUE, null, null, Integer.MIN_VALUE);
+
+    private final long deadlineNanos;
+    private final CancellationToken cancellationToken;
+    private final ImprovementListener improvementListener;
+    private final int targetScore;
+
+    public SolveRequest(long deadlineNanos, CancellationToken cancellationToken,
+                        ImprovementListener improvementListener, int targetScore) {
+        this.deadlineNanos = deadlineNanos;
+        this.cancellationToken = cancellationToken;
+        this.improvementListener = improvementListener;
+        this.targetScore = targetScore;
+    }
+
+    public static SolveRequest withTimeLimit(float seconds) {
+        return UNLIMITED.withDeadline(System.nanoTime() + (long) (seconds * 1_000_000_000L));
+    }
+
+    public SolveRequest withDeadline(long deadlineNanos) {
+        return new SolveRequest(deadlineNanos, cancellationToken, improvementListener, targetScore);
+    }
+
+    public SolveRequest withCancellationToken(CancellationToken cancellationToken) {
+        return new SolveRequest(deadlineNanos, cancellationToken, improvementListener, targetScore);
+    }
+
+    public SolveRequest withImprovementListener(ImprovementListener improvementListener) {
+        return new SolveRequest(deadlineNanos, cancellationToken, improvementListener, targetScore);
+    }
+
+    public SolveRequest withTargetScore(int targetScore) {
+        return new SolveRequest(deadlineNanos, cancellationToken, improvementListener, targetScore);
+    }
+
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    public ImprovementListener getImprovementListener() {
+        return improvementListener;
+    }
+
+    public int getTargetScore() {
+        return targetScore;
+    }
+
+    public boolean isCancelled() {
+        return cancellationToken != null && cancellationToken.isCancelled();
+    }
+}
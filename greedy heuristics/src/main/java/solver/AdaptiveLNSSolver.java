@@ -0,0 +1,254 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.OperatorStats;
+import main.java.models.Solution;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Adaptive Large Neighborhood Search.
+ * Each iteration picks one destroy and one repair operator by roulette selection, removes part of the
+ * current cycle, repairs it and (optionally) runs steepest local search on the result.
+ * Operator weights are updated every SEGMENT_LENGTH iterations from the improvement per millisecond the
+ * operator achieved in that segment, so the time budget is spent on the operators that pay off. Both operators
+ * of an iteration are charged its whole time (destroy, repair and local search), as the improvement is measured
+ * after the local search. The rates are divided by the best rate of the segment before they are blended into
+ * the weights, so they are on the scale of the initial weights (1.0).
+ */
+public class AdaptiveLNSSolver extends GenericSolver {
+
+    public static final String[] DESTROY_TYPES = {"Random", "Segment", "Worst"};
+
+    private static final double DESTROY_FRACTION = 0.3;
+    private static final int SEGMENT_LENGTH = 50;
+    private static final double REACTION_FACTOR = 0.3;
+    // no operator drops below this share of the total weight, so it can still recover
+    private static final double MIN_WEIGHT_SHARE = 0.05;
+    // bias of worst removal towards the most expensive nodes (higher = more deterministic)
+    private static final double WORST_REMOVAL_BIAS = 3.0;
+
+    private final float stoppingTimeSeconds;
+    private final boolean useLocalSearch;
+    private final RepairHeuristics repairHeuristics;
+
+    private OperatorStats[] destroyStats;
+    private OperatorStats[] repairStats;
+
+    public AdaptiveLNSSolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            float stoppingTimeSeconds,
+            boolean useLocalSearch
+    ) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, useLocalSearch ? "Adaptive LNS" : "Adaptive LNS-no LS");
+        this.stoppingTimeSeconds = stoppingTimeSeconds;
+        this.useLocalSearch = useLocalSearch;
+        this.repairHeuristics = new RepairHeuristics(distanceMatrix, costs);
+        resetOperatorStats();
+    }
+
+    public AdaptiveLNSSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, float stoppingTimeSeconds) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, stoppingTimeSeconds, true);
+    }
+
+    public OperatorStats[] getDestroyStats() {
+        return destroyStats;
+    }
+    public OperatorStats[] getRepairStats() {
+        return repairStats;
+    }
+
+    public void resetOperatorStats() {
+        destroyStats = new OperatorStats[DESTROY_TYPES.length];
+        for (int i = 0; i < DESTROY_TYPES.length; i++) {
+            destroyStats[i] = new OperatorStats("Destroy-" + DESTROY_TYPES[i], 1.0);
+        }
+        repairStats = new OperatorStats[RepairHeuristics.TYPES.length];
+        for (int i = 0; i < RepairHeuristics.TYPES.length; i++) {
+            repairStats[i] = new OperatorStats("Repair-" + RepairHeuristics.TYPES[i], 1.0);
+        }
+    }
+
+    private int rouletteSelect(OperatorStats[] stats) {
+        double total = 0;
+        for (OperatorStats s : stats) {
+            total += s.getWeight();
+        }
+        double r = ThreadLocalRandom.current().nextDouble() * total;
+        for (int i = 0; i < stats.length; i++) {
+            r -= stats[i].getWeight();
+            if (r <= 0) {
+                return i;
+            }
+        }
+        return stats.length - 1;
+    }
+
+    /**
+     * Blends the improvement-per-millisecond rate of the last segment into the weights.
+     * Operators that were not used in the segment keep their weight.
+     */
+    private void updateWeights(OperatorStats[] stats) {
+        double bestRate = 0;
+        for (OperatorStats s : stats) {
+            if (s.getSegmentTimeNanos() > 0) {
+                bestRate = Math.max(bestRate, s.getSegmentRate());
+            }
+        }
+        double total = 0;
+        for (OperatorStats s : stats) {
+            if (s.getSegmentTimeNanos() > 0) {
+                double rate = bestRate > 0 ? s.getSegmentRate() / bestRate : 0;
+                s.setWeight((1 - REACTION_FACTOR) * s.getWeight() + REACTION_FACTOR * rate);
+            }
+            s.resetSegment();
+            total += s.getWeight();
+        }
+        double minWeight = Math.max(MIN_WEIGHT_SHARE * total, 1e-9);
+        for (OperatorStats s : stats) {
+            if (s.getWeight() < minWeight) {
+                s.setWeight(minWeight);
+            }
+        }
+    }
+
+    /**
+     * Removes nodes from the cycle according to the destroy type.
+     * @param path closed path of the current solution
+     * @param selected selection mask, updated in place
+     * @return partial cycle (not closed); its length is the number of kept nodes
+     */
+    public int[] destroy(String type, int[] path, boolean[] selected) {
+        int size = path.length - 1;
+        int removeCount = (int) Math.round(size * DESTROY_FRACTION);
+        boolean[] removed = new boolean[size];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        switch (type) {
+            case "Random" -> {
+                int count = 0;
+                while (count < removeCount) {
+                    int pos = random.nextInt(size);
+                    if (!removed[pos]) {
+                        removed[pos] = true;
+                        count++;
+                    }
+                }
+            }
+            case "Segment" -> {
+                int start = random.nextInt(size);
+                for (int i = 0; i < removeCount; i++) {
+                    removed[(start + i) % size] = true;
+                }
+            }
+            case "Worst" -> {
+                // removal gain = saved distance + node cost; pick from the sorted list with bias towards the top
+                int[][] d = getDistanceMatrix();
+                Integer[] order = new Integer[size];
+                int[] gain = new int[size];
+                for (int i = 0; i < size; i++) {
+                    int pred = path[(i - 1 + size) % size];
+                    int succ = path[i + 1];
+                    gain[i] = d[pred][path[i]] + d[path[i]][succ] - d[pred][succ] + getCosts()[path[i]];
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Integer.compare(gain[b], gain[a]));
+                int count = 0;
+                while (count < removeCount) {
+                    int rank = (int) (Math.pow(random.nextDouble(), WORST_REMOVAL_BIAS) * size);
+                    int pos = order[rank];
+                    if (!removed[pos]) {
+                        removed[pos] = true;
+                        count++;
+                    }
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown destroy type: " + type);
+        }
+
+        int[] partial = new int[size - removeCount];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i]) {
+                selected[path[i]] = false;
+            } else {
+                partial[k++] = path[i];
+            }
+        }
+        return partial;
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        LocalSearchSolver lsSolver = new LocalSearchSolver(
+                getDistanceMatrix(),
+                getObjectiveMatrix(),
+                getCosts(),
+                getNodes(),
+                "Steepest",
+                "Edge",
+                "Random"
+        );
+        Set<Integer> allNodeIDs = getNodes().stream().map(Node::getId).collect(Collectors.toSet());
+        int totalNodes = getDistanceMatrix().length;
+        int targetNodesCount = getTargetNodesCount();
+
+        startSearch(stoppingTimeSeconds);
+        inheritInstanceReduction(lsSolver);
+        shareStopCondition(lsSolver);
+        Solution currentSolution = lsSolver.getSolution(startNodeID);
+        int currentScore = currentSolution.getScore();
+        Solution bestSolution = currentSolution;
+        int bestScore = currentScore;
+        reportImprovement(bestScore, currentSolution);
+        int iteration = 0;
+
+        while (!shouldStopNow()) {
+            int destroyIndex = rouletteSelect(destroyStats);
+            int repairIndex = rouletteSelect(repairStats);
+
+            boolean[] selected = new boolean[totalNodes];
+            for (int node : currentSolution.getPath()) {
+                selected[node] = true;
+            }
+            long iterationStart = System.nanoTime();
+            int[] partial = destroy(DESTROY_TYPES[destroyIndex], currentSolution.getPath(), selected);
+            int[] repaired = repairHeuristics.repair(RepairHeuristics.TYPES[repairIndex], partial, partial.length, selected, targetNodesCount);
+
+            Solution candidate = new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), repaired, getMethodName());
+            if (useLocalSearch) {
+                candidate = lsSolver.steepestLocalSearch(candidate, allNodeIDs);
+            }
+            int candidateScore = candidate.getScore();
+            long elapsed = System.nanoTime() - iterationStart;
+
+            int improvement = Math.max(0, currentScore - candidateScore);
+            boolean newBest = candidateScore < bestScore;
+            destroyStats[destroyIndex].record(elapsed, improvement, newBest);
+            repairStats[repairIndex].record(elapsed, improvement, newBest);
+
+            if (candidateScore < currentScore) {
+                currentSolution = candidate;
+                currentScore = candidateScore;
+            }
+            if (newBest) {
+                bestSolution = candidate;
+                bestScore = candidateScore;
+                reportImprovement(bestScore, candidate);
+            }
+
+            iteration++;
+            if (iteration % SEGMENT_LENGTH == 0) {
+                updateWeights(destroyStats);
+                updateWeights(repairStats);
+            }
+        }
+        bestSolution.setIterationCount(iteration);
+        return bestSolution;
+    }
+}
@@ -0,0 +1,239 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+import main.java.utils.CandidateTable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Max-min ant system for the half-node cycle problem.
+ * Every ant starts at a random node and appends nodes until the cycle has ceil(n / 2) of them, choosing the
+ * next node j of the current node i with probability proportional to tau(i, j) * eta(i, j)^BETA, where
+ * eta = 1 / objectiveMatrix[i][j]. Choices are restricted to the candidate list of i (nearest nodes by distance
+ * plus cost); only when all candidates are taken the best unvisited node overall is picked.
+ * Optionally every tour is improved with the candidate-moves 2-opt + swap local search.
+ *
+ * Pheromone is a flat symmetric float array. Ants of an iteration are split among worker threads, and each
+ * worker deposits its best tour in its own array, so threads never write to shared memory while building;
+ * the main thread then evaporates, adds the worker arrays and the global best tour, and clamps the
+ * pheromone to [tauMin, tauMax] as in the max-min ant system to avoid stagnation.
+ */
+public class AntColonySolver extends GenericSolver {
+
+    private static final int ANTS_COUNT = 10;
+    private static final int DEFAULT_CANDIDATES = 15;
+    private static final double BETA = 3.0;
+    private static final float EVAPORATION = 0.3f;
+    // tauMin = tauMax * TAU_MIN_RATIO
+    private static final float TAU_MIN_RATIO = 0.01f;
+
+    private final float stoppingTimeSeconds;
+    private final boolean useLocalSearch;
+    private final int workersCount;
+    private final LocalSearchCandidateMovesSolver candidateSolver;
+    private final CandidateTable candidates;
+
+    private final int totalNodes;
+    private final float[] heuristic; // eta^BETA, flat totalNodes * totalNodes
+    private float[] pheromone;
+
+    public AntColonySolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            float stoppingTimeSeconds,
+            boolean useLocalSearch,
+            int workersCount
+    ) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, useLocalSearch ? "Ant Colony" : "Ant Colony-no LS");
+        this.stoppingTimeSeconds = stoppingTimeSeconds;
+        this.useLocalSearch = useLocalSearch;
+        this.workersCount = workersCount;
+        this.candidateSolver = new LocalSearchCandidateMovesSolver(distanceMatrix, objectiveMatrix, costs, nodes, DEFAULT_CANDIDATES);
+        this.candidates = candidateSolver.getCandidateTable();
+        this.totalNodes = distanceMatrix.length;
+        this.heuristic = new float[totalNodes * totalNodes];
+        for (int i = 0; i < totalNodes; i++) {
+            for (int j = 0; j < totalNodes; j++) {
+                if (i != j) {
+                    heuristic[i * totalNodes + j] = (float) Math.pow(1.0 / Math.max(1, objectiveMatrix[i][j]), BETA);
+                }
+            }
+        }
+    }
+
+    public AntColonySolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, float stoppingTimeSeconds) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, stoppingTimeSeconds, true, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public void setInstanceReduction(InstanceReduction reduction) {
+        super.setInstanceReduction(reduction);
+        candidateSolver.setInstanceReduction(reduction);
+    }
+
+    /**
+     * Builds one tour: a closed path of targetNodesCount nodes.
+     */
+    private int[] buildTour(SplittableRandom random, int targetNodesCount, boolean[] visited, double[] weights) {
+        Arrays.fill(visited, false);
+        int[] path = new int[targetNodesCount + 1];
+        int current = random.nextInt(totalNodes);
+        path[0] = current;
+        visited[current] = true;
+        for (int step = 1; step < targetNodesCount; step++) {
+            int row = current * totalNodes;
+            double total = 0;
+            for (int k = 0; k < candidates.getK(); k++) {
+                int node = candidates.get(current, k);
+                double weight = visited[node] ? 0 : pheromone[row + node] * heuristic[row + node];
+                weights[k] = weight;
+                total += weight;
+            }
+            int next = -1;
+            if (total > 0) {
+                double threshold = random.nextDouble() * total;
+                for (int k = 0; k < candidates.getK(); k++) {
+                    threshold -= weights[k];
+                    if (weights[k] > 0 && threshold <= 0) {
+                        next = candidates.get(current, k);
+                        break;
+                    }
+                }
+                if (next == -1) {
+                    // rounding left the threshold slightly positive - take the last open candidate
+                    for (int k = candidates.getK() - 1; k >= 0 && next == -1; k--) {
+                        if (weights[k] > 0) next = candidates.get(current, k);
+                    }
+                }
+            } else {
+                double bestWeight = -1;
+                for (int node = 0; node < totalNodes; node++) {
+                    if (visited[node]) continue;
+                    double weight = pheromone[row + node] * heuristic[row + node];
+                    if (weight > bestWeight) {
+                        bestWeight = weight;
+                        next = node;
+                    }
+                }
+            }
+            path[step] = next;
+            visited[next] = true;
+            current = next;
+        }
+        path[targetNodesCount] = path[0];
+        return path;
+    }
+
+    private void deposit(float[] target, int[] path, float amount) {
+        for (int i = 0; i < path.length - 1; i++) {
+            int a = path[i];
+            int b = path[i + 1];
+            target[a * totalNodes + b] += amount;
+            target[b * totalNodes + a] += amount;
+        }
+    }
+
+    /**
+     * Builds the ants of one worker and deposits the best of them in the worker's own array.
+     * @return the best solution of the worker's ants
+     */
+    private Solution runAnts(int antsCount, SplittableRandom random, float[] deposits, Set<Integer> allNodeIDs, int targetNodesCount) {
+        Arrays.fill(deposits, 0f);
+        boolean[] visited = new boolean[totalNodes];
+        double[] weights = new double[DEFAULT_CANDIDATES];
+        Solution best = null;
+        int bestScore = Integer.MAX_VALUE;
+        for (int ant = 0; ant < antsCount && !shouldStopNow(); ant++) {
+            int[] path = buildTour(random, targetNodesCount, visited, weights);
+            Solution solution = new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), path, getMethodName());
+            if (useLocalSearch) {
+                solution = candidateSolver.steepestLocalSearch(solution, allNodeIDs);
+            }
+            int score = solution.getScore();
+            if (score < bestScore) {
+                bestScore = score;
+                best = solution;
+            }
+        }
+        if (best != null) {
+            deposit(deposits, best.getPath(), 1.0f / bestScore);
+        }
+        return best;
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        Set<Integer> allNodeIDs = getNodes().stream().map(Node::getId).collect(Collectors.toSet());
+        int targetNodesCount = getTargetNodesCount();
+        startSearch(stoppingTimeSeconds);
+        shareStopCondition(candidateSolver);
+
+        // pheromone starts at tauMax of a greedy-quality tour
+        GenericSolver referenceSolver = new NNAny2RegretWeightedSolver(getDistanceMatrix(), getObjectiveMatrix(), getCosts(), getNodes());
+        inheritInstanceReduction(referenceSolver);
+        int[] referencePath = referenceSolver.getSolution(startNodeID).getPath();
+        Solution reference = new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), referencePath, getMethodName());
+        Solution bestSolution = reference;
+        int bestScore = reference.getScore();
+        reportImprovement(bestScore, bestSolution);
+        float tauMax = 1.0f / (EVAPORATION * bestScore);
+        float tauMin = tauMax * TAU_MIN_RATIO;
+        pheromone = new float[totalNodes * totalNodes];
+        Arrays.fill(pheromone, tauMax);
+
+        int workers = Math.max(1, Math.min(workersCount, ANTS_COUNT));
+        float[][] deposits = new float[workers][totalNodes * totalNodes];
+        SplittableRandom random = new SplittableRandom();
+        int iteration = 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            while (!shouldStopNow()) {
+                List<Future<Solution>> futures = new ArrayList<>();
+                for (int w = 0; w < workers; w++) {
+                    int antsCount = ANTS_COUNT / workers + (w < ANTS_COUNT % workers ? 1 : 0);
+                    SplittableRandom workerRandom = random.split();
+                    float[] workerDeposits = deposits[w];
+                    futures.add(pool.submit(() -> runAnts(antsCount, workerRandom, workerDeposits, allNodeIDs, targetNodesCount)));
+                }
+                for (Future<Solution> future : futures) {
+                    Solution solution = future.get();
+                    if (solution != null && solution.getScore() < bestScore) {
+                        bestSolution = solution;
+                        bestScore = solution.getScore();
+                        reportImprovement(bestScore, bestSolution);
+                        tauMax = 1.0f / (EVAPORATION * bestScore);
+                        tauMin = tauMax * TAU_MIN_RATIO;
+                    }
+                }
+
+                for (int i = 0; i < pheromone.length; i++) {
+                    float tau = (1 - EVAPORATION) * pheromone[i];
+                    for (int w = 0; w < workers; w++) {
+                        tau += deposits[w][i];
+                    }
+                    pheromone[i] = tau;
+                }
+                deposit(pheromone, bestSolution.getPath(), 1.0f / bestScore);
+                for (int i = 0; i < pheromone.length; i++) {
+                    pheromone[i] = Math.max(tauMin, Math.min(tauMax, pheromone[i]));
+                }
+                iteration++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        bestSolution.setIterationCount(iteration);
+        return bestSolution;
+    }
+}
@@ -0,0 +1,208 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+import main.java.utils.ZobristTourHasher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Beam search over the weighted 2-regret nearest neighbor "any" construction: instead of committing to the
+ * single best insertion, every step keeps the beamWidth cheapest partial paths. Each partial path proposes its
+ * branching best nodes by the weighted regret priority (as NNAny2RegretWeightedSolver would pick them); a
+ * proposal is ranked by the cost of its parent plus the cached cheapest insertion cost of the node plus the
+ * edge that would close the path into a cycle, so no child is built before it is selected. Proposals that give
+ * the same path from different parents are merged by the Zobrist hash of the path. The selected children copy
+ * the insertion cache of their parent and apply one insertion (O(n) instead of recomputing all insertions), in
+ * parallel; inside a parallel batch of starts they are built sequentially.
+ * With beam width and branching 1 this is exactly NNAny2RegretWeightedSolver.
+ */
+public class BeamSearchSolver extends ConstructiveSolver {
+    public static final int DEFAULT_BEAM_WIDTH = 16;
+    public static final int DEFAULT_BRANCHING = 2;
+    private static final double DEFAULT_REGRET_WEIGHT = 0.5;
+    private static final double DEFAULT_SCORE_WEIGHT = 0.5;
+
+    private final int beamWidth;
+    private final int branching;
+    private final double regretWeight;
+    private final double scoreWeight;
+
+    public BeamSearchSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes,
+                            int beamWidth, int branching, double regretWeight, double scoreWeight) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "Beam Search 2-Regret Weighted");
+        this.beamWidth = Math.max(1, beamWidth);
+        this.branching = Math.max(1, branching);
+        this.regretWeight = regretWeight;
+        this.scoreWeight = scoreWeight;
+    }
+
+    public BeamSearchSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, DEFAULT_BEAM_WIDTH, DEFAULT_BRANCHING,
+                DEFAULT_REGRET_WEIGHT, DEFAULT_SCORE_WEIGHT);
+    }
+
+    /**
+     * Insertion of a node into a partial path of the beam.
+     */
+    private static final class Expansion {
+        private final int parent;
+        private final int node;
+        private final int cost; // cost of the partial path after the insertion, closed into a cycle
+        private final double priority;
+        private final long hash; // hash of the partial path after the insertion
+
+        private Expansion(int parent, int node, int cost, double priority, long hash) {
+            this.parent = parent;
+            this.node = node;
+            this.cost = cost;
+            this.priority = priority;
+            this.hash = hash;
+        }
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        int targetNodesCount = getTargetNodesCount();
+        // one extra key for the sentinel that closes the open path
+        ZobristTourHasher hasher = ZobristTourHasher.forSize(getDistanceMatrix().length + 1);
+
+        InsertionCache root = new InsertionCache(getDistanceMatrix(), getCosts(),
+                (bestCost, secondBestCost) -> scoreWeight * bestCost - regretWeight * (secondBestCost - bestCost));
+        root.startPath(startNodeID);
+        List<InsertionCache> beam = new ArrayList<>();
+        List<Long> hashes = new ArrayList<>();
+        beam.add(root);
+        hashes.add(hasher.node(startNodeID)); // both sentinel edges are the same undirected edge and cancel out
+
+        int threads = isBatchWorker() ? 1 : Math.min(getWorkersCount(), beamWidth);
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            while (beam.get(0).getSize() < targetNodesCount) {
+                List<Expansion> selected = selectExpansions(beam, hashes, hasher);
+                List<InsertionCache> children = expand(beam, selected, pool);
+                beam = children;
+                hashes = new ArrayList<>();
+                for (Expansion expansion : selected) {
+                    hashes.add(expansion.hash);
+                }
+            }
+        } finally {
+            if (pool != null) pool.shutdownNow();
+        }
+
+        Solution best = null;
+        for (InsertionCache path : beam) {
+            Solution solution = new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), path.toClosedPath(), getMethodName());
+            if (best == null || solution.getScore() < best.getScore()) {
+                best = solution;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The beamWidth cheapest distinct expansions of the current beam (ties: priority, parent, node ID).
+     */
+    private List<Expansion> selectExpansions(List<InsertionCache> beam, List<Long> hashes, ZobristTourHasher hasher) {
+        List<Expansion> expansions = new ArrayList<>();
+        for (int p = 0; p < beam.size(); p++) {
+            InsertionCache path = beam.get(p);
+            int sentinel = path.getNodesCount();
+            int first = path.getNext(sentinel);
+            int last = first;
+            while (path.getNext(last) != sentinel) {
+                last = path.getNext(last);
+            }
+            for (int node : bestNodes(path)) {
+                int a = path.getBestEdgeStart(node);
+                int b = path.getNext(a);
+                long hash = hashes.get(p) ^ hasher.node(node) ^ hasher.edge(a, b) ^ hasher.edge(a, node) ^ hasher.edge(node, b);
+                // ranked as closed cycles: the open path plus its closing edge
+                int closing = getDistanceMatrix()[b == sentinel ? node : last][a == sentinel ? node : first];
+                expansions.add(new Expansion(p, node, path.getPathCost() + path.getBestCost(node) + closing, path.getPriority(node), hash));
+            }
+        }
+        expansions.sort((e1, e2) -> {
+            if (e1.cost != e2.cost) return Integer.compare(e1.cost, e2.cost);
+            if (e1.priority != e2.priority) return Double.compare(e1.priority, e2.priority);
+            if (e1.parent != e2.parent) return Integer.compare(e1.parent, e2.parent);
+            return Integer.compare(e1.node, e2.node);
+        });
+        List<Expansion> selected = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Expansion expansion : expansions) {
+            if (selected.size() >= beamWidth) break;
+            if (seen.add(expansion.hash)) {
+                selected.add(expansion);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * The branching outside nodes with the lowest priority (ties: smallest ID).
+     */
+    private int[] bestNodes(InsertionCache path) {
+        int[] nodes = new int[branching];
+        double[] priorities = new double[branching];
+        int count = 0;
+        for (int node = 0; node < path.getNodesCount(); node++) {
+            if (path.isVisited(node)) continue;
+            double priority = path.getPriority(node);
+            int position = count;
+            while (position > 0 && priorities[position - 1] > priority) {
+                position--;
+            }
+            if (position >= branching) continue;
+            for (int t = Math.min(count, branching - 1); t > position; t--) {
+                nodes[t] = nodes[t - 1];
+                priorities[t] = priorities[t - 1];
+            }
+            nodes[position] = node;
+            priorities[position] = priority;
+            count = Math.min(count + 1, branching);
+        }
+        return Arrays.copyOf(nodes, count);
+    }
+
+    private List<InsertionCache> expand(List<InsertionCache> beam, List<Expansion> selected, ExecutorService pool) {
+        List<InsertionCache> children = new ArrayList<>();
+        if (pool == null) {
+            for (Expansion expansion : selected) {
+                children.add(child(beam.get(expansion.parent), expansion.node));
+            }
+            return children;
+        }
+        List<Callable<InsertionCache>> tasks = new ArrayList<>();
+        for (Expansion expansion : selected) {
+            tasks.add(() -> child(beam.get(expansion.parent), expansion.node));
+        }
+        try {
+            for (Future<InsertionCache> future : pool.invokeAll(tasks)) {
+                children.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return children;
+    }
+
+    private static InsertionCache child(InsertionCache parent, int node) {
+        InsertionCache child = new InsertionCache(parent);
+        child.insert(node);
+        return child;
+    }
+}
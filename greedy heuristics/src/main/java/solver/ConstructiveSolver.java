@@ -0,0 +1,199 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+import main.java.utils.IndexedMinHeap;
+import main.java.utils.SpatialGridIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deterministic construction heuristic whose solution depends only on the start node.
+ * Besides getSolution(startNodeID) it builds the solutions of many start nodes as one batch (getSolutions):
+ * the start-independent tables (e.g. the spatial index over the nodes) are built once and only copied per start,
+ * and the starts are spread over a pool of worker threads. getSolution must therefore not change any field of
+ * the solver; all state of a construction lives in local variables.
+ */
+public abstract class ConstructiveSolver extends GenericSolver {
+    private static final ThreadLocal<Boolean> BATCH_WORKER = ThreadLocal.withInitial(() -> false);
+
+    private int workersCount = Runtime.getRuntime().availableProcessors();
+    private volatile SpatialGridIndex nodeIndex; // all nodes, copied for every construction
+
+    public ConstructiveSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, String methodName) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, methodName);
+    }
+
+    public void setWorkersCount(int workersCount) {
+        this.workersCount = Math.max(1, workersCount);
+    }
+
+    public int getWorkersCount() {
+        return workersCount;
+    }
+
+    /**
+     * Index of all nodes, shared by all constructions; callers must not remove nodes from it.
+     */
+    protected SpatialGridIndex getNodeIndex() {
+        SpatialGridIndex index = nodeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = nodeIndex;
+                if (index == null) {
+                    index = new SpatialGridIndex(getNodes(), getCosts());
+                    nodeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Index of all nodes for the nearest neighbor queries of one construction.
+     */
+    protected SpatialGridIndex newNodeIndex() {
+        return new SpatialGridIndex(getNodeIndex());
+    }
+
+    /**
+     * Shrinks a cycle through all nodes to getTargetNodesCount nodes by repeatedly dropping the node whose
+     * removal saves the most (its cost plus the detour it causes), never the start node. The savings are kept
+     * in a heap and only the two neighbors of a dropped node change, so this takes O(n log n).
+     * Distances come from the node coordinates, so no distance matrix is read.
+     *
+     * @param order all node IDs in cycle order
+     * @return the closed path of the remaining nodes, beginning at the start node
+     */
+    protected int[] shrinkCycle(int[] order, int startNodeID) {
+        int n = order.length;
+        int targetNodesCount = Math.min(getTargetNodesCount(), n);
+        SpatialGridIndex distances = getNodeIndex();
+        int[] costs = getCosts();
+        int[] previous = new int[n];
+        int[] next = new int[n];
+        for (int i = 0; i < n; i++) {
+            previous[order[i]] = order[(i - 1 + n) % n];
+            next[order[i]] = order[(i + 1) % n];
+        }
+
+        // the largest saving first, as the smallest key
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        for (int node : order) {
+            if (node != startNodeID) {
+                heap.update(node, -removalSaving(node, previous, next, distances, costs));
+            }
+        }
+        for (int size = n; size > targetNodesCount; size--) {
+            int node = heap.peek();
+            heap.remove(node);
+            int before = previous[node];
+            int after = next[node];
+            next[before] = after;
+            previous[after] = before;
+            if (before != startNodeID) heap.update(before, -removalSaving(before, previous, next, distances, costs));
+            if (after != startNodeID) heap.update(after, -removalSaving(after, previous, next, distances, costs));
+        }
+
+        int[] path = new int[targetNodesCount + 1];
+        int current = startNodeID;
+        for (int i = 0; i < targetNodesCount; i++) {
+            path[i] = current;
+            current = next[current];
+        }
+        path[targetNodesCount] = startNodeID;
+        return path;
+    }
+
+    private static int removalSaving(int node, int[] previous, int[] next, SpatialGridIndex distances, int[] costs) {
+        int before = previous[node];
+        int after = next[node];
+        return costs[node] + distances.distance(before, node) + distances.distance(node, after) - distances.distance(before, after);
+    }
+
+    /**
+     * Solutions for the start nodes 0 .. startsCount - 1.
+     */
+    public Solution[] getSolutions(int startsCount) {
+        return getSolutions(startsCount, null);
+    }
+
+    /**
+     * Solutions for the start nodes 0 .. startsCount - 1, built in parallel.
+     * @param solutionTimes if not null, receives the wall time of the whole batch divided by the number of starts, in seconds
+     */
+    public Solution[] getSolutions(int startsCount, float[] solutionTimes) {
+        int[] startNodeIDs = new int[startsCount];
+        for (int start = 0; start < startsCount; start++) {
+            startNodeIDs[start] = start;
+        }
+        return getSolutions(startNodeIDs, solutionTimes);
+    }
+
+    /**
+     * Solutions for the given start nodes (solutions[i] starts at startNodeIDs[i]), built in parallel.
+     * The workers compete for the CPU, so the time of a single construction inside the batch is not comparable
+     * with a sequential run; every start is charged the batch wall time divided by the number of starts instead.
+     * @param solutionTimes if not null, receives the wall time of the whole batch divided by the number of starts, in seconds
+     */
+    public Solution[] getSolutions(int[] startNodeIDs, float[] solutionTimes) {
+        long startTime = System.nanoTime();
+        Solution[] solutions = buildSolutions(startNodeIDs);
+        if (solutionTimes != null && startNodeIDs.length > 0) {
+            float timePerStart = (System.nanoTime() - startTime) / 1_000_000_000.0f / startNodeIDs.length;
+            Arrays.fill(solutionTimes, 0, startNodeIDs.length, timePerStart);
+        }
+        return solutions;
+    }
+
+    private Solution[] buildSolutions(int[] startNodeIDs) {
+        int startsCount = startNodeIDs.length;
+        Solution[] solutions = new Solution[startsCount];
+        int threads = Math.min(workersCount, startsCount);
+        if (threads <= 1) {
+            for (int start = 0; start < startsCount; start++) {
+                solutions[start] = getSolution(startNodeIDs[start]);
+            }
+            return solutions;
+        }
+
+        AtomicInteger nextStart = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    BATCH_WORKER.set(true);
+                    for (int start = nextStart.getAndIncrement(); start < startsCount; start = nextStart.getAndIncrement()) {
+                        solutions[start] = getSolution(startNodeIDs[start]);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return solutions;
+    }
+
+    /**
+     * Whether the current thread builds starts of a parallel batch, so a construction should not start
+     * threads of its own.
+     */
+    protected static boolean isBatchWorker() {
+        return BATCH_WORKER.get();
+    }
+}
@@ -0,0 +1,201 @@
+package main.java.solver;
+
+import java.util.Arrays;
+
+/**
+ * For every node outside of a cycle, its cheapest insertion edges of the cycle, kept up to date as the cycle
+ * changes, for the relocate-swap move of LocalSearchSolver.
+ *
+ * Removing a node from the cycle takes away its two edges, so three edges are kept per node: at least one of them
+ * is still in the cycle after any removal, and together with the new edge that closes the gap it gives the best
+ * insertion into the shortened cycle in O(1). After a move only the nodes whose cached edges were removed are
+ * rescanned (O(n) each); every other node just checks the edges the move added.
+ */
+public class CycleInsertionCache {
+    public static final int KEPT_EDGES = 3;
+
+    private final int[][] distanceMatrix;
+    private final int totalNodes;
+    private final boolean[] inCycle;
+    private int[] next;
+    private int[] previous;
+    private int[] nextBuffer;
+    private int[] previousBuffer;
+
+    // edges sorted by insertion cost (distance detour only, without the cost of the node)
+    private final int[][] edgeStart;
+    private final int[][] edgeEnd;
+    private final int[][] edgeCost;
+
+    private final int[] removedStart;
+    private final int[] removedEnd;
+    private final int[] addedStart;
+    private final int[] addedEnd;
+
+    public CycleInsertionCache(int[][] distanceMatrix) {
+        this.distanceMatrix = distanceMatrix;
+        this.totalNodes = distanceMatrix.length;
+        this.inCycle = new boolean[totalNodes];
+        this.next = new int[totalNodes];
+        this.previous = new int[totalNodes];
+        this.nextBuffer = new int[totalNodes];
+        this.previousBuffer = new int[totalNodes];
+        this.edgeStart = new int[KEPT_EDGES][totalNodes];
+        this.edgeEnd = new int[KEPT_EDGES][totalNodes];
+        this.edgeCost = new int[KEPT_EDGES][totalNodes];
+        this.removedStart = new int[totalNodes];
+        this.removedEnd = new int[totalNodes];
+        this.addedStart = new int[totalNodes];
+        this.addedEnd = new int[totalNodes];
+    }
+
+    /**
+     * Computes the cache for a closed path (first node repeated at the end) from scratch.
+     */
+    public void rebuild(int[] path) {
+        Arrays.fill(inCycle, false);
+        link(path, next, previous);
+        for (int node = 0; node < totalNodes; node++) {
+            if (!inCycle[node]) {
+                rescan(node);
+            }
+        }
+    }
+
+    /**
+     * Brings the cache from the previous cycle to the closed path of the new one.
+     */
+    public void update(int[] path) {
+        boolean[] wasInCycle = inCycle.clone();
+        int[] oldNext = next;
+        int[] oldPrevious = previous;
+        Arrays.fill(inCycle, false);
+        link(path, nextBuffer, previousBuffer);
+        next = nextBuffer;
+        previous = previousBuffer;
+        nextBuffer = oldNext;
+        previousBuffer = oldPrevious;
+
+        // edges are undirected: a 2-opt move reverses a segment without changing its edges; the successor
+        // arrays are only valid for nodes of their own cycle
+        int removedCount = 0;
+        for (int node = 0; node < totalNodes; node++) {
+            if (wasInCycle[node] && !(inCycle[node] && inCycle[oldNext[node]] && hasEdge(node, oldNext[node], next, previous))) {
+                removedStart[removedCount] = node;
+                removedEnd[removedCount++] = oldNext[node];
+            }
+        }
+        int addedCount = 0;
+        for (int node = 0; node < totalNodes; node++) {
+            if (inCycle[node] && !(wasInCycle[node] && wasInCycle[next[node]] && hasEdge(node, next[node], oldNext, oldPrevious))) {
+                addedStart[addedCount] = node;
+                addedEnd[addedCount++] = next[node];
+            }
+        }
+
+        for (int node = 0; node < totalNodes; node++) {
+            if (inCycle[node]) continue;
+            if (wasInCycle[node] || usesRemovedEdge(node, removedCount)) {
+                rescan(node);
+            } else {
+                for (int e = 0; e < addedCount; e++) {
+                    offer(node, addedStart[e], addedEnd[e]);
+                }
+            }
+        }
+    }
+
+    private void link(int[] path, int[] nextOf, int[] previousOf) {
+        int n = path.length - 1;
+        for (int i = 0; i < n; i++) {
+            inCycle[path[i]] = true;
+            nextOf[path[i]] = path[(i + 1) % n];
+            previousOf[path[(i + 1) % n]] = path[i];
+        }
+    }
+
+    private static boolean hasEdge(int a, int b, int[] nextOf, int[] previousOf) {
+        return nextOf[a] == b || previousOf[a] == b;
+    }
+
+    private boolean usesRemovedEdge(int node, int removedCount) {
+        for (int k = 0; k < KEPT_EDGES; k++) {
+            int a = edgeStart[k][node];
+            int b = edgeEnd[k][node];
+            if (a == -1) continue;
+            for (int e = 0; e < removedCount; e++) {
+                if ((removedStart[e] == a && removedEnd[e] == b) || (removedStart[e] == b && removedEnd[e] == a)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void rescan(int node) {
+        for (int k = 0; k < KEPT_EDGES; k++) {
+            edgeStart[k][node] = -1;
+            edgeEnd[k][node] = -1;
+            edgeCost[k][node] = Integer.MAX_VALUE;
+        }
+        for (int a = 0; a < totalNodes; a++) {
+            if (inCycle[a]) {
+                offer(node, a, next[a]);
+            }
+        }
+    }
+
+    private void offer(int node, int a, int b) {
+        int cost = distanceMatrix[a][node] + distanceMatrix[node][b] - distanceMatrix[a][b];
+        int position = KEPT_EDGES;
+        while (position > 0 && cost < edgeCost[position - 1][node]) {
+            position--;
+        }
+        if (position == KEPT_EDGES) return;
+        for (int k = KEPT_EDGES - 1; k > position; k--) {
+            edgeStart[k][node] = edgeStart[k - 1][node];
+            edgeEnd[k][node] = edgeEnd[k - 1][node];
+            edgeCost[k][node] = edgeCost[k - 1][node];
+        }
+        edgeStart[position][node] = a;
+        edgeEnd[position][node] = b;
+        edgeCost[position][node] = cost;
+    }
+
+    /**
+     * Index of the cheapest cached insertion edge of the outside node that does not touch the removed node,
+     * or -1 if there is none (only when the cycle has fewer than four nodes).
+     */
+    public int bestEdgeWithout(int node, int removedNode) {
+        for (int k = 0; k < KEPT_EDGES; k++) {
+            int a = edgeStart[k][node];
+            if (a == -1) return -1;
+            if (a != removedNode && edgeEnd[k][node] != removedNode) return k;
+        }
+        return -1;
+    }
+
+    public int getEdgeStart(int node, int k) {
+        return edgeStart[k][node];
+    }
+
+    public int getEdgeEnd(int node, int k) {
+        return edgeEnd[k][node];
+    }
+
+    public int getEdgeCost(int node, int k) {
+        return edgeCost[k][node];
+    }
+
+    public boolean isInCycle(int node) {
+        return inCycle[node];
+    }
+
+    public int getNext(int node) {
+        return next[node];
+    }
+
+    public int getPrevious(int node) {
+        return previous[node];
+    }
+}
@@ -1,10 +1,14 @@
 package main.java.solver;
 
+import main.java.models.EliteArchive;
 import main.java.models.Solution;
+import main.java.models.SolveRequest;
 
 import main.java.models.Node;
+import main.java.utils.LagrangianLowerBound;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 public abstract class GenericSolver {
     /**
@@ -27,6 +31,19 @@ public abstract class GenericSolver {
 
     private String methodName;
 
+    private InstanceReduction reduction; // non-null if the solver works on a reduced instance, see setInstanceReduction
+
+    // state of the current run, see getSolution(int, SolveRequest)
+    private static final int STOP_CHECK_INTERVAL = 64;
+    private SolveRequest activeRequest = SolveRequest.UNLIMITED;
+    private long deadlineNanos = Long.MAX_VALUE;
+    private long runStartNanos = System.nanoTime();
+    private int stopCheckCounter;
+    private volatile boolean stopped;
+    private int bestReportedScore = Integer.MAX_VALUE;
+    private GenericSolver stopParent; // outer solver whose stop also stops this one, see shareStopCondition
+    private int gapTargetScore = Integer.MIN_VALUE; // see setTargetGap
+
     public GenericSolver(int[][] distanceMatrix,int[][] objectiveMatrix, int[] costs, List<Node> nodes, String methodName) {
         this.distanceMatrix = distanceMatrix;
         this.objectiveMatrix = objectiveMatrix;
@@ -48,6 +65,39 @@ public abstract class GenericSolver {
         return nodes;
     }
 
+    /**
+     * Number of nodes in the cycle: ceil(n / 2), or the count of the original instance on a reduced one.
+     */
+    public int getTargetNodesCount() {
+        return reduction != null ? reduction.getTargetNodesCount() : (int) Math.ceil(distanceMatrix.length / 2.0);
+    }
+
+    /**
+     * Whether the instance reduction fixed the node into the cycle, so the local search never swaps it out.
+     */
+    public boolean isFixedSelected(int nodeID) {
+        return reduction != null && reduction.isFixedSelected(nodeID);
+    }
+
+    /**
+     * Marks the solver as working on the reduced instance of the reduction (the matrices passed to the constructor
+     * must be the reduced ones). Solvers that create their inner solvers up front pass it on by overriding this.
+     */
+    public void setInstanceReduction(InstanceReduction reduction) {
+        this.reduction = reduction;
+    }
+
+    public InstanceReduction getInstanceReduction() {
+        return reduction;
+    }
+
+    /**
+     * Lets an inner solver on the same instance (local search, start solution) use the reduction of this one.
+     */
+    protected void inheritInstanceReduction(GenericSolver inner) {
+        inner.setInstanceReduction(reduction);
+    }
+
     public String getMethodName() {
         return methodName;
     }
@@ -56,6 +106,22 @@ public abstract class GenericSolver {
         this.methodName = methodName;
     }
 
+    /**
+     * Makes every run stop as soon as the best score is within the given relative gap of the Lagrangian lower
+     * bound of the instance (e.g. 0.03 = at most 3% above the optimum); a negative gap disables it.
+     */
+    public void setTargetGap(float gap) {
+        gapTargetScore = gap < 0 ? Integer.MIN_VALUE
+                : LagrangianLowerBound.forInstance(distanceMatrix, costs, getTargetNodesCount()).getScoreWithinGap(gap);
+    }
+
+    /**
+     * Archive of the local optima visited by the last getSolution call, for solvers that keep one (null otherwise).
+     */
+    public EliteArchive getEliteArchive() {
+        return null;
+    }
+
     /** Method to be implemented by subclasses to solve the problem.
      * @param startNodeID The ID of the starting node for the solution.
      *
@@ -63,4 +129,127 @@ public abstract class GenericSolver {
      */
     public abstract Solution getSolution(int startNodeID);
 
+    /**
+     * Solves the problem under the deadline, cancellation token and target score of the request,
+     * notifying its listener about every new best solution. Solvers without a search loop simply finish;
+     * their result is reported to the listener at the end.
+     */
+    public Solution getSolution(int startNodeID, SolveRequest request) {
+        activeRequest = request;
+        deadlineNanos = request.getDeadlineNanos();
+        stopParent = null;
+        resetRunState();
+        try {
+            Solution solution = getSolution(startNodeID);
+            if (solution != null) {
+                reportImprovement(solution.getScore(), () -> solution);
+            }
+            return solution;
+        } finally {
+            activeRequest = SolveRequest.UNLIMITED;
+            deadlineNanos = Long.MAX_VALUE;
+            stopped = false; // a later plain getSolution call must not inherit the stop of this request
+        }
+    }
+
+    private void resetRunState() {
+        runStartNanos = System.nanoTime();
+        stopCheckCounter = 0;
+        stopped = false;
+        bestReportedScore = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Starts the search loop of a solver with its own time budget; the deadline is the earlier of the budget
+     * and the deadline of the active request.
+     */
+    protected void startSearch(float stoppingTimeSeconds) {
+        resetRunState();
+        long budgetDeadline = runStartNanos + (long) (stoppingTimeSeconds * 1_000_000_000L);
+        deadlineNanos = Math.min(activeRequest.getDeadlineNanos(), budgetDeadline);
+    }
+
+    /**
+     * Starts the search loop of a solver without a time budget of its own.
+     */
+    protected void startSearch() {
+        resetRunState();
+        deadlineNanos = activeRequest.getDeadlineNanos();
+    }
+
+    /**
+     * Lets an inner solver (e.g. the local search of ILS) stop at the same deadline or cancellation,
+     * without reporting its own improvements to the listener.
+     */
+    protected void shareStopCondition(GenericSolver inner) {
+        inner.activeRequest = SolveRequest.UNLIMITED;
+        inner.deadlineNanos = deadlineNanos;
+        inner.stopParent = this;
+        inner.resetRunState();
+    }
+
+    private boolean isStopRequested() {
+        return activeRequest.isCancelled() || (stopParent != null && (stopParent.stopped || stopParent.isStopRequested()));
+    }
+
+    /**
+     * Cheap stop check for hot loops: the cancellation token and the target are checked every call,
+     * the clock only every STOP_CHECK_INTERVAL calls.
+     */
+    protected boolean shouldStop() {
+        if (stopped) return true;
+        if (isStopRequested()) {
+            stopped = true;
+        } else if (++stopCheckCounter >= STOP_CHECK_INTERVAL) {
+            stopCheckCounter = 0;
+            stopped = System.nanoTime() >= deadlineNanos;
+        }
+        return stopped;
+    }
+
+    /**
+     * Stop check that always reads the clock, for loops whose iterations are expensive.
+     */
+    protected boolean shouldStopNow() {
+        if (!stopped) {
+            stopped = isStopRequested() || System.nanoTime() >= deadlineNanos;
+        }
+        return stopped;
+    }
+
+    /**
+     * Deadline of the current run (System.nanoTime() based, Long.MAX_VALUE = none).
+     */
+    protected long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Elapsed fraction of the time until the deadline, for schedules such as the cooling of SA.
+     */
+    protected double getElapsedFraction() {
+        return (System.nanoTime() - runStartNanos) / (double) (deadlineNanos - runStartNanos);
+    }
+
+    /**
+     * Called by solvers with every new best score; notifies the listener (building the solution only if there
+     * is one) and stops the run once the target score of the request or the target gap is reached.
+     */
+    protected void reportImprovement(int score, Solution solution) {
+        reportImprovement(score, () -> solution);
+    }
+
+    protected void reportImprovement(int score, Supplier<Solution> solution) {
+        synchronized (this) {
+            if (score >= bestReportedScore) return;
+            bestReportedScore = score;
+        }
+        if (score <= activeRequest.getTargetScore() || score <= gapTargetScore) {
+            stopped = true;
+        }
+        if (activeRequest.getImprovementListener() != null) {
+            activeRequest.getImprovementListener().onImprovement(getMethodName(), solution.get(), System.nanoTime() - runStartNanos);
+        }
+    }
+
 }
@@ -0,0 +1,72 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * GRASP constructor: randomized version of the weighted 2-regret "nearest neighbor any" insertion
+ * (NNAny2RegretWeightedSolver). At every step the candidates whose weighted score is within
+ * alpha * (max - min) of the best one form the restricted candidate list, and one of them is inserted
+ * at its best position. alpha = 0 gives the greedy heuristic, alpha = 1 a random insertion order.
+ *
+ * The path and the best and second best insertion of every unvisited node are kept in an InsertionCache,
+ * so a step only rescans the nodes whose cached edges were split.
+ */
+public class GraspSolver extends GenericSolver {
+
+    private static final double DEFAULT_ALPHA = 0.2;
+    private static final double DEFAULT_REGRET_WEIGHT = 0.5;
+    private static final double DEFAULT_SCORE_WEIGHT = 0.5;
+
+    private final double alpha;
+    private final double regretWeight;
+    private final double scoreWeight;
+
+    public GraspSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, double alpha) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "GRASP");
+        this.alpha = alpha;
+        this.regretWeight = DEFAULT_REGRET_WEIGHT;
+        this.scoreWeight = DEFAULT_SCORE_WEIGHT;
+    }
+
+    public GraspSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, DEFAULT_ALPHA);
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        int totalNodes = getDistanceMatrix().length;
+        int targetNodesCount = getTargetNodesCount();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        InsertionCache insertionCache = new InsertionCache(getDistanceMatrix(), getCosts(), null);
+        insertionCache.startPath(startNodeID);
+
+        double[] weightedScores = new double[totalNodes];
+        int[] restrictedCandidates = new int[totalNodes];
+        while (insertionCache.getSize() < targetNodesCount) {
+            double minScore = Double.MAX_VALUE;
+            double maxScore = -Double.MAX_VALUE;
+            for (int node = 0; node < totalNodes; node++) {
+                if (insertionCache.isVisited(node)) continue;
+                int bestCost = insertionCache.getBestCost(node);
+                double weightedScore = scoreWeight * bestCost - regretWeight * (insertionCache.getSecondBestCost(node) - bestCost);
+                weightedScores[node] = weightedScore;
+                minScore = Math.min(minScore, weightedScore);
+                maxScore = Math.max(maxScore, weightedScore);
+            }
+            double threshold = minScore + alpha * (maxScore - minScore);
+            int rclSize = 0;
+            for (int node = 0; node < totalNodes; node++) {
+                if (!insertionCache.isVisited(node) && weightedScores[node] <= threshold) {
+                    restrictedCandidates[rclSize++] = node;
+                }
+            }
+            insertionCache.insert(restrictedCandidates[random.nextInt(rclSize)]);
+        }
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), insertionCache.toClosedPath(), getMethodName());
+    }
+}
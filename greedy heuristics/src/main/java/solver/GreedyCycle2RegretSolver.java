@@ -2,93 +2,31 @@ package main.java.solver;
 
 import main.java.models.Node;
 import main.java.models.Solution;
+import main.java.utils.SpatialGridIndex;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
-public class GreedyCycle2RegretSolver extends GenericSolver {
+public class GreedyCycle2RegretSolver extends ConstructiveSolver {
 
     public GreedyCycle2RegretSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
         super(distanceMatrix, objectiveMatrix, costs, nodes, "Greedy Cycle 2-Regret");
     }
 
-    public int findNearestNeighbor(int currentNode, Set<Integer> unvisitedNodes  ) {
-        int nearestNeighbor = -1;
-        int minScore = Integer.MAX_VALUE;
-
-        for (int i = 0; i < getObjectiveMatrix().length; i++) {
-            if (unvisitedNodes.contains(i) && (getDistanceMatrix()[currentNode][i] + getCosts()[i]) < minScore) {
-                minScore = getDistanceMatrix()[currentNode][i] + getCosts()[i];
-                nearestNeighbor = i;
-            }
-        }
-        return nearestNeighbor;
-    }
-
     @Override
     public Solution getSolution(int startNodeID) {
-        int targetNodesCount = (int) Math.ceil((getDistanceMatrix().length) / 2.0);
-        Set<Integer> unvisitedIds = new HashSet<>();
-        for (int i = 0; i < getDistanceMatrix().length; i++) {
-            unvisitedIds.add(i);
-        }
-
-        unvisitedIds.remove(startNodeID);
-        int nearestNode = findNearestNeighbor(startNodeID, unvisitedIds);
-        unvisitedIds.remove(nearestNode);
-
-        int nodeCount = 2;
-
-        List<Integer> path = new ArrayList<>();
-        path.add(startNodeID);
-        path.add(nearestNode);
-        path.add(startNodeID); // to complete the cycle
-
-        while (nodeCount < targetNodesCount) {
-            int bestNode = -1;
-            int bestPosition = -1;
-            int maxRegret = Integer.MIN_VALUE;
-
-            for (int candidate: unvisitedIds) {
-                // for each node not in cycle
-                // find the best insertion position and the 2nd best
-                int bestInsertPosition1 = -1;
-                int bestInsertPosition2 = -1;
-                int increment1 = Integer.MAX_VALUE;
-                int increment2 = Integer.MAX_VALUE;
-
-                for (int i = 0; i < path.size() - 1; i++) {
-                    int curr = path.get(i);
-                    int next = path.get(i + 1);
-                    int increment = (getDistanceMatrix()[curr][candidate] + getCosts()[candidate])
-                            + (getDistanceMatrix()[candidate][next] + getCosts()[next])
-                            - (getDistanceMatrix()[curr][next] + getCosts()[next]);
-
-                    if (increment < increment1) {
-                        increment1 = increment;
-                        bestInsertPosition1 = i + 1; // insert after current node
-                    } else if (increment < increment2) {
-                        increment2 = increment;
-                        bestInsertPosition2 = i + 1;
-                    }
-                }
-                // compute regret
-                int regret = increment2 - increment1;
-                if (regret > maxRegret) {
-                    // update the best node as the node with max regret
-                    maxRegret = regret;
-                    bestNode = candidate;
-                    bestPosition = bestInsertPosition1;
-                }
-            }
-            path.add(bestPosition, bestNode);
-            unvisitedIds.remove(bestNode);
-            nodeCount++;
-
+        int targetNodesCount = getTargetNodesCount();
+        SpatialGridIndex index = newNodeIndex();
+        index.remove(startNodeID);
+        int nearestNode = index.nearest(startNodeID);
+
+        // the node with the largest regret (second best - best insertion cost) is inserted at its best position
+        InsertionCache insertionCache = new InsertionCache(getDistanceMatrix(), getCosts(),
+                (bestCost, secondBestCost) -> bestCost - secondBestCost);
+        insertionCache.startCycle(startNodeID, nearestNode);
+        while (insertionCache.getSize() < targetNodesCount) {
+            insertionCache.insert(insertionCache.bestNode());
         }
-        int[] finalPath = path.stream().mapToInt(Integer::intValue).toArray();
-        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), finalPath, getMethodName());
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), insertionCache.toClosedPath(), getMethodName());
     }
+
 }
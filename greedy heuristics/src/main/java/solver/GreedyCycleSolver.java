@@ -2,80 +2,30 @@ package main.java.solver;
 
 import main.java.models.Node;
 import main.java.models.Solution;
+import main.java.utils.SpatialGridIndex;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Set;
 
-public class GreedyCycleSolver extends GenericSolver{
+public class GreedyCycleSolver extends ConstructiveSolver {
     public GreedyCycleSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
         super(distanceMatrix, objectiveMatrix, costs, nodes, "GreedyCycle");
     }
 
-    public int findNearestNeighbor(int currentNode, boolean[] visited) {
-        int nearestNeighbor = -1;
-        int minScore = Integer.MAX_VALUE;
-
-        for (int i = 0; i < getObjectiveMatrix().length; i++) {
-            if (!visited[i] && getObjectiveMatrix()[currentNode][i] < minScore) {
-                minScore = getObjectiveMatrix()[currentNode][i];
-                nearestNeighbor = i;
-            }
-        }
-        return nearestNeighbor;
-    }
-
     @Override
     public Solution getSolution(int startNodeID) {
-        int targetNodesCount = (int) Math.ceil((getDistanceMatrix().length) / 2.0);
-        boolean[] visited = new boolean[getDistanceMatrix().length];
-        Set<Integer> unvisitedIds = new HashSet<>();
-        for (int i = 0; i < visited.length; i++) {
-            unvisitedIds.add(i);
+        int targetNodesCount = getTargetNodesCount();
+        SpatialGridIndex index = newNodeIndex();
+        index.remove(startNodeID);
+        int nearestNode = index.nearest(startNodeID);
+
+        // the node with the cheapest insertion is inserted at that position; only the insertions next to the
+        // last inserted node change, so the cache avoids rescanning every node and position at every step
+        InsertionCache insertionCache = new InsertionCache(getDistanceMatrix(), getCosts(),
+                (bestCost, secondBestCost) -> bestCost);
+        insertionCache.startCycle(startNodeID, nearestNode);
+        while (insertionCache.getSize() < targetNodesCount) {
+            insertionCache.insert(insertionCache.bestNode());
         }
-
-        visited[startNodeID] = true;
-        unvisitedIds.remove(startNodeID);
-        int nearestNode = findNearestNeighbor(startNodeID, visited);
-        visited[nearestNode] = true;
-        unvisitedIds.remove(nearestNode);
-
-        int nodeCount = 2;
-
-        List<Integer> path = new ArrayList<>();
-        path.add(startNodeID);
-        path.add(nearestNode);
-        path.add(startNodeID); // to complete the cycle
-
-        while (nodeCount < targetNodesCount) {
-            int bestNode = -1;
-            int bestPosition = -1;
-            int bestIncrement = Integer.MAX_VALUE;
-
-            for (int candidate: unvisitedIds) {
-                for (int i = 0; i < path.size() - 1; i++) {
-                    int curr = path.get(i);
-                    int next = path.get(i + 1);
-                    int increment = getObjectiveMatrix()[curr][candidate]
-                            + getObjectiveMatrix()[candidate][next]
-                            - getObjectiveMatrix()[curr][next];
-
-                    if (increment < bestIncrement) {
-                        bestIncrement = increment;
-                        bestNode = candidate;
-                        bestPosition = i + 1; // insert after current node
-                    }
-                }
-            }
-            path.add(bestPosition, bestNode);
-            visited[bestNode] = true;
-            unvisitedIds.remove(bestNode);
-            nodeCount++;
-
-        }
-        int[] finalPath = path.stream().mapToInt(Integer::intValue).toArray();
-        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), finalPath, getMethodName());
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), insertionCache.toClosedPath(), getMethodName());
     }
-
 }
@@ -0,0 +1,189 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Guided local search on top of the steepest 2-opt + node swap local search.
+ * The search minimizes the augmented objective
+ *     h = score + lambda * (sum of penalties of the tour edges + sum of penalties of the selected nodes).
+ * Penalties are kept in flat int arrays (edges as a symmetric n * n array) and only change at local optima
+ * of h, where the features with the highest utility cost / (1 + penalty) are penalized.
+ * Augmented deltas are the real O(1) deltas of LocalSearchSolver plus a penalty delta read from the penalty
+ * arrays only, so the distance matrix is never modified.
+ */
+public class GuidedLocalSearchSolver extends LocalSearchSolver {
+
+    // lambda = ALPHA * (score of the first local optimum) / (number of penalized features in a solution)
+    private static final double ALPHA = 0.2;
+    private static final double EPSILON = 1e-9;
+
+    private final float stoppingTimeSeconds;
+
+    private int[] edgePenalties;
+    private int[] nodePenalties;
+    private double lambda;
+
+    public GuidedLocalSearchSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, float stoppingTimeSeconds) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "Steepest", "Edge", "Random");
+        this.stoppingTimeSeconds = stoppingTimeSeconds;
+        setMethodName("Guided Local Search");
+    }
+
+    private int edgePenalty(int a, int b) {
+        return edgePenalties[a * nodePenalties.length + b];
+    }
+
+    /**
+     * Penalty part of the augmented delta of deltaNodeSwapAt.
+     */
+    public int penaltyDeltaNodeSwap(int[] cycle, int n, int pos, int newNodeID) {
+        int oldNodeID = cycle[pos];
+        int pred = cycle[(pos - 1 + n) % n];
+        int succ = cycle[(pos + 1) % n];
+        return edgePenalty(pred, newNodeID) + edgePenalty(newNodeID, succ) + nodePenalties[newNodeID]
+                - edgePenalty(pred, oldNodeID) - edgePenalty(oldNodeID, succ) - nodePenalties[oldNodeID];
+    }
+
+    /**
+     * Penalty part of the augmented delta of deltaEdgeExchangeAt.
+     */
+    public int penaltyDeltaEdgeExchange(int[] cycle, int n, int pos1, int pos2) {
+        int a = cycle[pos1];
+        int b = cycle[(pos1 + 1) % n];
+        int c = cycle[pos2];
+        int d = cycle[(pos2 + 1) % n];
+        return edgePenalty(a, c) + edgePenalty(b, d) - edgePenalty(a, b) - edgePenalty(c, d);
+    }
+
+    /**
+     * Penalizes the features of the local optimum with maximal utility cost / (1 + penalty).
+     */
+    private void penalize(int[] cycle, int n) {
+        int[][] distanceMatrix = getDistanceMatrix();
+        int[] costs = getCosts();
+        int totalNodes = nodePenalties.length;
+        double maxUtility = -1;
+        for (int i = 0; i < n; i++) {
+            int a = cycle[i];
+            int b = cycle[(i + 1) % n];
+            maxUtility = Math.max(maxUtility, distanceMatrix[a][b] / (1.0 + edgePenalty(a, b)));
+            maxUtility = Math.max(maxUtility, costs[a] / (1.0 + nodePenalties[a]));
+        }
+        for (int i = 0; i < n; i++) {
+            int a = cycle[i];
+            int b = cycle[(i + 1) % n];
+            if (distanceMatrix[a][b] / (1.0 + edgePenalty(a, b)) >= maxUtility - EPSILON) {
+                edgePenalties[a * totalNodes + b]++;
+                edgePenalties[b * totalNodes + a]++;
+            }
+            if (costs[a] / (1.0 + nodePenalties[a]) >= maxUtility - EPSILON) {
+                nodePenalties[a]++;
+            }
+        }
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        int totalNodes = getDistanceMatrix().length;
+        edgePenalties = new int[totalNodes * totalNodes];
+        nodePenalties = new int[totalNodes];
+        lambda = 0;
+
+        Solution startSolution = getStartSolution(startNodeID);
+        int n = startSolution.getPath().length - 1;
+        int[] cycle = Arrays.copyOf(startSolution.getPath(), n);
+        boolean[] selected = new boolean[totalNodes];
+        for (int node : cycle) {
+            selected[node] = true;
+        }
+        int currentScore = startSolution.getScore();
+        int bestScore = currentScore;
+        int[] bestCycle = Arrays.copyOf(cycle, n);
+
+        startSearch(stoppingTimeSeconds);
+        int localOptima = 0;
+
+        while (!shouldStopNow()) {
+            // steepest descent on the augmented objective
+            while (!shouldStop()) {
+                double bestAugmentedDelta = -EPSILON;
+                int bestDelta = 0;
+                int bestType = -1; // 0 = 2-opt, 1 = node swap
+                int bestArg1 = -1;
+                int bestArg2 = -1;
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 2; j < n; j++) {
+                        if (i == 0 && j == n - 1) continue;
+                        int delta = deltaEdgeExchangeAt(cycle, n, i, j);
+                        double augmented = delta + lambda * penaltyDeltaEdgeExchange(cycle, n, i, j);
+                        if (augmented < bestAugmentedDelta) {
+                            bestAugmentedDelta = augmented;
+                            bestDelta = delta;
+                            bestType = 0;
+                            bestArg1 = i;
+                            bestArg2 = j;
+                        }
+                    }
+                }
+                for (int node = 0; node < totalNodes; node++) {
+                    if (selected[node]) continue;
+                    for (int i = 0; i < n; i++) {
+                        int delta = deltaNodeSwapAt(cycle, n, i, node);
+                        double augmented = delta + lambda * penaltyDeltaNodeSwap(cycle, n, i, node);
+                        if (augmented < bestAugmentedDelta) {
+                            bestAugmentedDelta = augmented;
+                            bestDelta = delta;
+                            bestType = 1;
+                            bestArg1 = i;
+                            bestArg2 = node;
+                        }
+                    }
+                }
+                if (bestType == -1) {
+                    break;
+                }
+                if (bestType == 0) {
+                    int left = bestArg1 + 1;
+                    int right = bestArg2;
+                    while (left < right) {
+                        int temp = cycle[left];
+                        cycle[left] = cycle[right];
+                        cycle[right] = temp;
+                        left++;
+                        right--;
+                    }
+                } else {
+                    selected[cycle[bestArg1]] = false;
+                    selected[bestArg2] = true;
+                    cycle[bestArg1] = bestArg2;
+                }
+                currentScore += bestDelta;
+                if (currentScore < bestScore) {
+                    bestScore = currentScore;
+                    System.arraycopy(cycle, 0, bestCycle, 0, n);
+                    reportImprovement(bestScore, () -> toSolution(bestCycle, n));
+                }
+            }
+            localOptima++;
+            if (lambda == 0) {
+                // features of a solution: n edges and n nodes
+                lambda = ALPHA * currentScore / (2.0 * n);
+            }
+            penalize(cycle, n);
+        }
+
+        Solution solution = toSolution(bestCycle, n);
+        solution.setIterationCount(localOptima);
+        return solution;
+    }
+
+    private Solution toSolution(int[] cycle, int n) {
+        int[] path = Arrays.copyOf(cycle, n + 1);
+        path[n] = path[0];
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), path, getMethodName());
+    }
+}
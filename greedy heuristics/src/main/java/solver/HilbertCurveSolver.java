@@ -0,0 +1,37 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+import main.java.utils.HilbertCurve;
+
+import java.util.List;
+
+/**
+ * Space-filling curve construction for very large instances: all nodes are visited in the order of a Hilbert
+ * curve, then the cycle is shrunk to half of the nodes by dropping the nodes that save the most (cost plus
+ * detour, see shrinkCycle) - expensive nodes and nodes in sparse regions go first. The curve order is computed
+ * once per instance; a construction takes O(n log n) and reads no distance matrix, so it can serve as a local
+ * search start where an O(n^2) greedy is too slow. The start node is always kept.
+ */
+public class HilbertCurveSolver extends ConstructiveSolver {
+    private volatile int[] curveOrder;
+
+    public HilbertCurveSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "Hilbert Curve");
+    }
+
+    private int[] getCurveOrder() {
+        int[] order = curveOrder;
+        if (order == null) {
+            order = HilbertCurve.order(getNodes());
+            curveOrder = order;
+        }
+        return order;
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        int[] path = shrinkCycle(getCurveOrder(), startNodeID);
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), path, getMethodName());
+    }
+}
@@ -0,0 +1,205 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Steady-state hybrid evolutionary algorithm.
+ * The population holds distinct local optima of the steepest edge-exchange local search.
+ * Offspring keep the nodes and edges common to both parents and are repaired with weighted 2-regret
+ * insertion, then improved by local search. Offspring are produced in parallel by a pool of workers,
+ * each of which replaces the worst member of the population if its child is better and not a duplicate.
+ * Duplicates are recognized by the Zobrist tour hash that the local search keeps up to date.
+ */
+public class HybridEvolutionarySolver extends GenericSolver {
+
+    private static final int POPULATION_SIZE = 20;
+
+    private final float stoppingTimeSeconds;
+    private final int workersCount;
+    private final RepairHeuristics repairHeuristics;
+
+    // population state, guarded by populationLock
+    private final Object populationLock = new Object();
+    private Solution[] population;
+    private int[] populationScores;
+    private long[] populationHashes;
+    private Set<Long> populationHashSet;
+    private int offspringCount;
+
+    public HybridEvolutionarySolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            float stoppingTimeSeconds,
+            int workersCount
+    ) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "Hybrid Evolutionary");
+        this.stoppingTimeSeconds = stoppingTimeSeconds;
+        this.workersCount = workersCount;
+        this.repairHeuristics = new RepairHeuristics(distanceMatrix, costs);
+    }
+
+    public HybridEvolutionarySolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, float stoppingTimeSeconds) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, stoppingTimeSeconds, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Keeps the nodes of parent1 that also appear in parent2, in the order of parent1.
+     * Every edge shared by both parents connects two such nodes that stay adjacent, so the partial cycle keeps
+     * all common nodes and common edges. The gaps are left to the repair heuristic, which may still insert
+     * nodes into common edges.
+     */
+    public int[] recombine(int[] parent1, int[] parent2, boolean[] selected) {
+        boolean[] inParent2 = new boolean[selected.length];
+        for (int i = 0; i < parent2.length - 1; i++) {
+            inParent2[parent2[i]] = true;
+        }
+        int[] partial = new int[parent1.length - 1];
+        int size = 0;
+        for (int i = 0; i < parent1.length - 1; i++) {
+            if (inParent2[parent1[i]]) {
+                partial[size++] = parent1[i];
+                selected[parent1[i]] = true;
+            }
+        }
+        return Arrays.copyOf(partial, size);
+    }
+
+    /**
+     * Inserts the child into the population in place of the worst member if it is better and not a duplicate.
+     */
+    private void tryInsert(Solution child) {
+        int score = child.getScore();
+        long hash = child.getTourHash();
+        synchronized (populationLock) {
+            offspringCount++;
+            if (populationHashSet.contains(hash)) {
+                return;
+            }
+            int worst = 0;
+            for (int i = 1; i < POPULATION_SIZE; i++) {
+                if (populationScores[i] > populationScores[worst]) {
+                    worst = i;
+                }
+            }
+            if (score < populationScores[worst]) {
+                populationHashSet.remove(populationHashes[worst]);
+                population[worst] = child;
+                populationScores[worst] = score;
+                populationHashes[worst] = hash;
+                populationHashSet.add(hash);
+            }
+        }
+        reportImprovement(score, child);
+    }
+
+    private void evolve(LocalSearchSolver lsSolver, Set<Integer> allNodeIDs, int targetNodesCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!shouldStopNow()) {
+            int[] parent1;
+            int[] parent2;
+            synchronized (populationLock) {
+                int i = random.nextInt(POPULATION_SIZE);
+                int j = random.nextInt(POPULATION_SIZE - 1);
+                if (j >= i) j++;
+                parent1 = population[i].getPath();
+                parent2 = population[j].getPath();
+            }
+            boolean[] selected = new boolean[getDistanceMatrix().length];
+            int[] partial = recombine(parent1, parent2, selected);
+            int[] childPath = repairHeuristics.repair("2-Regret", partial, partial.length, selected, targetNodesCount);
+            Solution child = new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), childPath, getMethodName());
+            child = lsSolver.steepestLocalSearch(child, allNodeIDs);
+            tryInsert(child);
+        }
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        LocalSearchSolver lsSolver = new LocalSearchSolver(
+                getDistanceMatrix(),
+                getObjectiveMatrix(),
+                getCosts(),
+                getNodes(),
+                "Steepest",
+                "Edge",
+                "Random"
+        );
+        Set<Integer> allNodeIDs = getNodes().stream().map(Node::getId).collect(Collectors.toSet());
+        int targetNodesCount = getTargetNodesCount();
+        startSearch(stoppingTimeSeconds);
+        inheritInstanceReduction(lsSolver);
+        shareStopCondition(lsSolver);
+
+        population = new Solution[POPULATION_SIZE];
+        populationScores = new int[POPULATION_SIZE];
+        populationHashes = new long[POPULATION_SIZE];
+        populationHashSet = new HashSet<>();
+        offspringCount = 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workersCount);
+        try {
+            // initial population: distinct local optima from random starts, generated in parallel
+            List<Future<Solution>> initial = new ArrayList<>();
+            for (int i = 0; i < POPULATION_SIZE; i++) {
+                initial.add(pool.submit(() -> lsSolver.getSolution(startNodeID)));
+            }
+            int filled = 0;
+            for (Future<Solution> future : initial) {
+                Solution solution = future.get();
+                long hash = solution.getTourHash();
+                if (populationHashSet.add(hash)) {
+                    population[filled] = solution;
+                    populationScores[filled] = solution.getScore();
+                    reportImprovement(populationScores[filled], solution);
+                    populationHashes[filled] = hash;
+                    filled++;
+                }
+            }
+            while (filled < POPULATION_SIZE) {
+                Solution solution = lsSolver.getSolution(startNodeID);
+                long hash = solution.getTourHash();
+                if (populationHashSet.add(hash)) {
+                    population[filled] = solution;
+                    populationScores[filled] = solution.getScore();
+                    reportImprovement(populationScores[filled], solution);
+                    populationHashes[filled] = hash;
+                    filled++;
+                }
+            }
+
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int w = 0; w < workersCount; w++) {
+                workers.add(() -> {
+                    evolve(lsSolver, allNodeIDs, targetNodesCount);
+                    return null;
+                });
+            }
+            for (Future<Void> future : pool.invokeAll(workers)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int best = 0;
+        for (int i = 1; i < POPULATION_SIZE; i++) {
+            if (populationScores[i] < populationScores[best]) {
+                best = i;
+            }
+        }
+        Solution bestSolution = population[best];
+        bestSolution.setIterationCount(offspringCount);
+        return bestSolution;
+    }
+}
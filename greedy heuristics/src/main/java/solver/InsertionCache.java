@@ -0,0 +1,269 @@
+package main.java.solver;
+
+import main.java.utils.IndexedMinHeap;
+
+import java.util.Arrays;
+
+/**
+ * Partial path plus, for every node outside of it, the cheapest and second cheapest insertion edge, shared by
+ * the insertion constructors (2-regret greedy cycle and nearest neighbor any solvers, GRASP).
+ *
+ * The path is a linked list in an int successor array, either a closed cycle or an open path closed by a
+ * virtual sentinel node whose distance to every node is 0 (insertions before the first and after the last node
+ * then cost the same as in NN2Solver). An edge is identified by its start node. After an insertion on edge
+ * a -> b only the nodes whose best or second best edge was a -> b are rescanned; every other node only checks
+ * the two new edges. Given a priority (lower = inserted first), the outside nodes are also kept in an indexed
+ * heap whose keys change only when their cached insertions do, so picking the next node is O(log n) and a
+ * whole construction is about O(n^2 log n) instead of the O(n^3) of rescanning every position.
+ */
+public class InsertionCache {
+
+    /**
+     * Priority of inserting a node given its cheapest and second cheapest insertion cost, lower = earlier.
+     */
+    public interface Priority {
+        double of(int bestCost, int secondBestCost);
+    }
+
+    private final int[][] distanceMatrix;
+    private final int[] costs;
+    private final int totalNodes;
+    private final int sentinel;
+    private final Priority priority;
+    private final IndexedMinHeap heap;
+
+    private final int[] next;
+    private final boolean[] visited;
+    private int head;
+    private int size;
+    private int pathCost; // distances along the path (the sentinel edges count 0) plus the node costs
+
+    private final int[] best1Cost;
+    private final int[] best1Edge;
+    private final int[] best2Cost;
+    private final int[] best2Edge;
+
+    /**
+     * @param priority order in which bestNode returns the outside nodes, or null if the caller picks nodes itself
+     */
+    public InsertionCache(int[][] distanceMatrix, int[] costs, Priority priority) {
+        this.distanceMatrix = distanceMatrix;
+        this.costs = costs;
+        this.totalNodes = distanceMatrix.length;
+        this.sentinel = totalNodes;
+        this.priority = priority;
+        this.heap = priority != null ? new IndexedMinHeap(totalNodes) : null;
+        this.next = new int[totalNodes + 1];
+        this.visited = new boolean[totalNodes];
+        this.best1Cost = new int[totalNodes];
+        this.best1Edge = new int[totalNodes];
+        this.best2Cost = new int[totalNodes];
+        this.best2Edge = new int[totalNodes];
+    }
+
+    /**
+     * Independent copy of another cache, e.g. to branch a partial path in a beam search; copying is O(n)
+     * while building the insertion data of the same path from scratch is O(n * path length).
+     */
+    public InsertionCache(InsertionCache other) {
+        this.distanceMatrix = other.distanceMatrix;
+        this.costs = other.costs;
+        this.totalNodes = other.totalNodes;
+        this.sentinel = other.sentinel;
+        this.priority = other.priority;
+        this.heap = other.heap != null ? new IndexedMinHeap(other.heap) : null;
+        this.next = other.next.clone();
+        this.visited = other.visited.clone();
+        this.head = other.head;
+        this.size = other.size;
+        this.pathCost = other.pathCost;
+        this.best1Cost = other.best1Cost.clone();
+        this.best1Edge = other.best1Edge.clone();
+        this.best2Cost = other.best2Cost.clone();
+        this.best2Edge = other.best2Edge.clone();
+    }
+
+    /**
+     * Starts an open path with a single node.
+     */
+    public void startPath(int startNode) {
+        reset();
+        head = sentinel;
+        next[sentinel] = startNode;
+        next[startNode] = sentinel;
+        visited[startNode] = true;
+        size = 1;
+        pathCost = costs[startNode];
+        initializeOutsideNodes();
+    }
+
+    /**
+     * Starts a closed cycle through the given nodes in this order.
+     */
+    public void startCycle(int... cycleNodes) {
+        reset();
+        head = cycleNodes[0];
+        for (int i = 0; i < cycleNodes.length; i++) {
+            next[cycleNodes[i]] = cycleNodes[(i + 1) % cycleNodes.length];
+            visited[cycleNodes[i]] = true;
+        }
+        size = cycleNodes.length;
+        pathCost = 0;
+        for (int i = 0; i < cycleNodes.length; i++) {
+            pathCost += costs[cycleNodes[i]] + distanceMatrix[cycleNodes[i]][cycleNodes[(i + 1) % cycleNodes.length]];
+        }
+        initializeOutsideNodes();
+    }
+
+    private void reset() {
+        Arrays.fill(visited, false);
+        if (heap != null) heap.clear();
+    }
+
+    private void initializeOutsideNodes() {
+        for (int node = 0; node < totalNodes; node++) {
+            if (!visited[node]) {
+                recompute(node);
+                if (heap != null) heap.update(node, priority.of(best1Cost[node], best2Cost[node]));
+            }
+        }
+    }
+
+    /**
+     * Outside node with the lowest priority (ties: smallest ID).
+     */
+    public int bestNode() {
+        return heap.peek();
+    }
+
+    /**
+     * Inserts the outside node on its cheapest edge.
+     */
+    public void insert(int node) {
+        int a = best1Edge[node];
+        int b = next[a];
+        next[a] = node;
+        next[node] = b;
+        visited[node] = true;
+        size++;
+        pathCost += best1Cost[node];
+        if (heap != null) heap.remove(node);
+
+        // edge a -> b is gone; new edges are a -> node and node -> b
+        for (int other = 0; other < totalNodes; other++) {
+            if (visited[other]) continue;
+            boolean changed;
+            if (best1Edge[other] == a || best2Edge[other] == a) {
+                recompute(other);
+                changed = true;
+            } else {
+                changed = offer(other, insertionCost(a, other), a);
+                changed |= offer(other, insertionCost(node, other), node);
+            }
+            if (changed && heap != null) {
+                heap.update(other, priority.of(best1Cost[other], best2Cost[other]));
+            }
+        }
+    }
+
+    /**
+     * Cost of inserting node on the edge that starts at edgeStart; the sentinel is at distance 0 from every node.
+     */
+    private int insertionCost(int edgeStart, int node) {
+        int edgeEnd = next[edgeStart];
+        int cost = costs[node];
+        if (edgeStart != sentinel) cost += distanceMatrix[edgeStart][node];
+        if (edgeEnd != sentinel) cost += distanceMatrix[node][edgeEnd];
+        if (edgeStart != sentinel && edgeEnd != sentinel) cost -= distanceMatrix[edgeStart][edgeEnd];
+        return cost;
+    }
+
+    private boolean offer(int node, int cost, int edgeStart) {
+        if (cost < best1Cost[node]) {
+            best2Cost[node] = best1Cost[node];
+            best2Edge[node] = best1Edge[node];
+            best1Cost[node] = cost;
+            best1Edge[node] = edgeStart;
+            return true;
+        } else if (cost < best2Cost[node]) {
+            best2Cost[node] = cost;
+            best2Edge[node] = edgeStart;
+            return true;
+        }
+        return false;
+    }
+
+    private void recompute(int node) {
+        best1Cost[node] = Integer.MAX_VALUE;
+        best2Cost[node] = Integer.MAX_VALUE;
+        best1Edge[node] = -1;
+        best2Edge[node] = -1;
+        int edgeStart = head;
+        do {
+            offer(node, insertionCost(edgeStart, node), edgeStart);
+            edgeStart = next[edgeStart];
+        } while (edgeStart != head);
+    }
+
+    /**
+     * Priority of the outside node given its current insertions.
+     */
+    public double getPriority(int node) {
+        return priority.of(best1Cost[node], best2Cost[node]);
+    }
+
+    /**
+     * Start of the edge the outside node would be inserted on; the edge ends at getNext of it.
+     */
+    public int getBestEdgeStart(int node) {
+        return best1Edge[node];
+    }
+
+    /**
+     * Successor on the path (the sentinel of an open path is getNodesCount()).
+     */
+    public int getNext(int node) {
+        return next[node];
+    }
+
+    public int getNodesCount() {
+        return totalNodes;
+    }
+
+    /**
+     * Objective of the current path: its distances (for an open path without the closing edge) plus node costs.
+     */
+    public int getPathCost() {
+        return pathCost;
+    }
+
+    public boolean isVisited(int node) {
+        return visited[node];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getBestCost(int node) {
+        return best1Cost[node];
+    }
+
+    public int getSecondBestCost(int node) {
+        return best2Cost[node];
+    }
+
+    /**
+     * The path as a closed path (first node repeated at the end), starting after the sentinel for open paths.
+     */
+    public int[] toClosedPath() {
+        int[] path = new int[size + 1];
+        int current = head == sentinel ? next[sentinel] : head;
+        for (int i = 0; i < size; i++) {
+            path[i] = current;
+            current = next[current];
+        }
+        path[size] = path[0];
+        return path;
+    }
+}
@@ -0,0 +1,211 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+import main.java.utils.LagrangianLowerBound;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Preprocessing that shrinks an instance before solving by fixing nodes out of or into the cycle.
+ *  - Bounds (exact): with the best score of a sample of local search optima (or a given solution) as upper bound,
+ *    a node is fixed out if the Lagrangian lower bound of every cycle containing it is above the upper bound,
+ *    and fixed in if the bound of every cycle without it is. No cycle scoring at most the upper bound is lost.
+ *  - Statistics (heuristic, only with sampleFixing): nodes no sampled optimum selects (typically expensive nodes
+ *    far from the cheap ones) are fixed out, and nodes every sampled optimum selects (cheap central nodes) are
+ *    fixed in. This is a guess from a few samples, not a proof, and may cut off the best cycles.
+ * On the TSPA/TSPB data the bound is too loose to fix nodes on its own; only the heuristic part shrinks them.
+ *
+ * The reduced instance keeps the remaining nodes, renumbered 0..k-1, with the original number of nodes to
+ * select. Solvers on it get the reduction through GenericSolver.setInstanceReduction, so they select that many
+ * nodes (GenericSolver.getTargetNodesCount) and their local search never swaps out fixed-in nodes. Fixed-in
+ * nodes only restrict the local search; other moves (kicks, destroy operators, annealing) may still drop them,
+ * which gives valid, if worse, cycles. Solutions of the reduced instance are mapped back with toOriginal.
+ */
+public class InstanceReduction {
+    public static final int DEFAULT_SAMPLES_COUNT = 20;
+    private static final int SAMPLE_CANDIDATES = 10;
+
+    private final int[][] originalDistanceMatrix;
+    private final int[][] originalObjectiveMatrix;
+    private final int[] originalCosts;
+    private final List<Node> originalNodes;
+    private final int upperBound;
+    private final LagrangianLowerBound lowerBound;
+    private final int targetNodesCount;
+
+    private final int[] originalIDs; // reduced node ID -> original node ID
+    private final boolean[] fixedSelected; // by reduced node ID
+    private final int fixedOutCount;
+    private final int fixedInCount;
+
+    private final int[][] distanceMatrix;
+    private final int[][] objectiveMatrix;
+    private final int[] costs;
+    private final List<Node> nodes;
+
+    /**
+     * @param upperBound score of a known solution (Integer.MAX_VALUE if none; the best sample is used as well)
+     * @param samplesCount number of local search optima for the upper bound and the statistics
+     * @param sampleFixing also fixes nodes by the statistics of the samples (heuristic), not only by the bounds
+     */
+    public InstanceReduction(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes,
+                             int upperBound, int samplesCount, boolean sampleFixing) {
+        this.originalDistanceMatrix = distanceMatrix;
+        this.originalObjectiveMatrix = objectiveMatrix;
+        this.originalCosts = costs;
+        this.originalNodes = nodes;
+        this.targetNodesCount = (int) Math.ceil(distanceMatrix.length / 2.0);
+        SampleStatistics samples = new SampleStatistics(distanceMatrix, objectiveMatrix, costs, nodes, samplesCount);
+        this.upperBound = Math.min(upperBound, samples.bestScore);
+
+        this.lowerBound = LagrangianLowerBound.forInstance(distanceMatrix, costs, targetNodesCount);
+        List<Integer> kept = new ArrayList<>();
+        List<Boolean> keptFixedIn = new ArrayList<>();
+        int fixedIn = 0;
+        for (int node = 0; node < distanceMatrix.length; node++) {
+            boolean neverSelected = sampleFixing && samplesCount > 0 && samples.selectionCounts[node] == 0;
+            boolean alwaysSelected = sampleFixing && samplesCount > 0 && samples.selectionCounts[node] == samplesCount;
+            if (neverSelected || lowerBound.getBoundWithNode(node) > this.upperBound) {
+                continue;
+            }
+            boolean in = alwaysSelected || lowerBound.getBoundWithoutNode(node) > this.upperBound;
+            if (in) fixedIn++;
+            kept.add(node);
+            keptFixedIn.add(in);
+        }
+        int size = kept.size();
+        this.fixedOutCount = distanceMatrix.length - size;
+        this.fixedInCount = fixedIn;
+        this.originalIDs = new int[size];
+        this.fixedSelected = new boolean[size];
+        this.distanceMatrix = new int[size][size];
+        this.objectiveMatrix = new int[size][size];
+        this.costs = new int[size];
+        this.nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int original = kept.get(i);
+            originalIDs[i] = original;
+            fixedSelected[i] = keptFixedIn.get(i);
+            this.costs[i] = costs[original];
+            Node node = nodes.get(original);
+            this.nodes.add(new Node(i, node.getX(), node.getY(), node.getCost()));
+            for (int j = 0; j < size; j++) {
+                this.distanceMatrix[i][j] = distanceMatrix[original][kept.get(j)];
+                this.objectiveMatrix[i][j] = objectiveMatrix[original][kept.get(j)];
+            }
+        }
+    }
+
+    public InstanceReduction(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, boolean sampleFixing) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, Integer.MAX_VALUE, DEFAULT_SAMPLES_COUNT, sampleFixing);
+    }
+
+    /**
+     * Exact reduction: nodes are fixed by the bounds only.
+     */
+    public InstanceReduction(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, false);
+    }
+
+    /**
+     * Selection counts of the nodes in local search optima from random starts.
+     */
+    private static final class SampleStatistics {
+        private final int samplesCount;
+        private final int[] selectionCounts;
+        private int bestScore = Integer.MAX_VALUE;
+
+        private SampleStatistics(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, int samplesCount) {
+            this.samplesCount = samplesCount;
+            this.selectionCounts = new int[distanceMatrix.length];
+            LocalSearchCandidateMovesSolver solver = new LocalSearchCandidateMovesSolver(distanceMatrix, objectiveMatrix, costs, nodes, SAMPLE_CANDIDATES);
+            for (int sample = 0; sample < samplesCount; sample++) {
+                Solution solution = solver.getSolution(sample);
+                bestScore = Math.min(bestScore, solution.getScore());
+                int[] path = solution.getPath();
+                for (int i = 0; i < path.length - 1; i++) {
+                    selectionCounts[path[i]]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * The same cycle in the original instance.
+     */
+    public Solution toOriginal(Solution solution) {
+        int[] path = solution.getPath();
+        int[] originalPath = new int[path.length];
+        for (int i = 0; i < path.length; i++) {
+            originalPath[i] = originalIDs[path[i]];
+        }
+        return new Solution(originalNodes, originalObjectiveMatrix, originalDistanceMatrix, originalCosts, originalPath,
+                solution.getMethodName(), solution.getIterationCount());
+    }
+
+    public int[][] getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    public int[][] getObjectiveMatrix() {
+        return objectiveMatrix;
+    }
+
+    public int[] getCosts() {
+        return costs;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public int getTargetNodesCount() {
+        return targetNodesCount;
+    }
+
+    public boolean isFixedSelected(int node) {
+        return fixedSelected[node];
+    }
+
+    public int getOriginalID(int node) {
+        return originalIDs[node];
+    }
+
+    /**
+     * Start node in the reduced instance for a start node of the original instance: the same node if it was kept,
+     * otherwise the kept node nearest to it.
+     */
+    public int getStartNodeID(int originalID) {
+        int best = 0;
+        for (int node = 0; node < originalIDs.length; node++) {
+            if (originalIDs[node] == originalID) {
+                return node;
+            }
+            if (originalDistanceMatrix[originalID][originalIDs[node]] < originalDistanceMatrix[originalID][originalIDs[best]]) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Lower bound of the original instance.
+     */
+    public LagrangianLowerBound getLowerBound() {
+        return lowerBound;
+    }
+
+    public int getUpperBound() {
+        return upperBound;
+    }
+
+    public int getFixedOutCount() {
+        return fixedOutCount;
+    }
+
+    public int getFixedInCount() {
+        return fixedInCount;
+    }
+}
@@ -1,18 +1,44 @@
 package main.java.solver;
 
 
+import main.java.models.EliteArchive;
 import main.java.models.Node;
+import main.java.models.SharedIncumbent;
 import main.java.models.Solution;
 import main.java.solver.LocalSearchSolver;
 import main.java.utils.CSVParser;
+import main.java.utils.SparseIntSet;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class IteratedLocalSearchSolver extends GenericSolver {
 
+    // share of the time budget left for path relinking and the window DP pass when they are enabled
+    private static final float PATH_RELINKING_SHARE = 0.1f;
+    private static final String DEFAULT_PERTURBATION_TYPE = "BridgeSwap";
+    // kick of the original method; only it keeps the unsuffixed name, so results stay comparable with older runs
+    private static final String CLASSIC_PERTURBATION_TYPE = "Classic";
+    // kick strength goes up when the local search falls back into the incumbent and down when it escapes
+    private static final int MIN_STRENGTH = 1;
+    private static final int MAX_STRENGTH = 10;
+    // LS runs without a new best after which the chain restarts from a better shared incumbent
+    private static final int RESTART_AFTER_STALL = 50;
+
     private float stoppingTimeSeconds;
     private int totalLSRuns = 0;
+    private final int eliteSize; // > 0 enables path relinking between the best local optima at the end
+    private final String perturbationType; // one of PerturbationOperators.TYPES
+    private final String startSolutionType; // start of the first local search, see LocalSearchSolver
+    private final boolean windowOptimization; // runs WindowDPOptimizer on the best solution at the end
+    private EliteArchive eliteArchive;
+    private int returnsToIncumbent = 0;
+    private SharedIncumbent sharedIncumbent; // set when running in a portfolio
+
+    // perturbation state
+    private PerturbationOperators perturbationOperators;
+    private SparseIntSet outsideNodes;
+    private boolean[] marked;
 
 
     public IteratedLocalSearchSolver(
@@ -22,8 +48,72 @@ public class IteratedLocalSearchSolver extends GenericSolver {
             List<Node> nodes,
             float stoppingTimeSeconds
     ) {
-        super(distanceMatrix, objectiveMatrix, costs, nodes, "Iterated Local Search");
+        this(distanceMatrix, objectiveMatrix, costs, nodes, stoppingTimeSeconds, 0);
+    }
+
+    public IteratedLocalSearchSolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            float stoppingTimeSeconds,
+            int eliteSize
+    ) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, stoppingTimeSeconds, eliteSize, DEFAULT_PERTURBATION_TYPE);
+    }
+
+    public IteratedLocalSearchSolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            float stoppingTimeSeconds,
+            int eliteSize,
+            String perturbationType
+    ) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, stoppingTimeSeconds, eliteSize, perturbationType, "Random");
+    }
+
+    /**
+     * @param startSolutionType start of the first local search, see LocalSearchSolver (e.g. "Hilbert" or "MST"
+     *                          to start fast on large instances)
+     */
+    public IteratedLocalSearchSolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            float stoppingTimeSeconds,
+            int eliteSize,
+            String perturbationType,
+            String startSolutionType
+    ) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, stoppingTimeSeconds, eliteSize, perturbationType, startSolutionType, false);
+    }
+
+    /**
+     * @param windowOptimization runs the window DP pass on the best solution at the end, independently of path relinking
+     */
+    public IteratedLocalSearchSolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            float stoppingTimeSeconds,
+            int eliteSize,
+            String perturbationType,
+            String startSolutionType,
+            boolean windowOptimization
+    ) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes,
+                (perturbationType.equals(CLASSIC_PERTURBATION_TYPE) ? "Iterated Local Search" : "Iterated Local Search-" + perturbationType)
+                        + (startSolutionType.equals("Random") ? "" : "-" + startSolutionType + "_Start")
+                        + (windowOptimization ? "-WDP" : ""));
         this.stoppingTimeSeconds = stoppingTimeSeconds;
+        this.eliteSize = eliteSize;
+        this.perturbationType = perturbationType;
+        this.startSolutionType = startSolutionType;
+        this.windowOptimization = windowOptimization;
     }
 
     public int getTotalLSRuns() {
@@ -33,62 +123,30 @@ public class IteratedLocalSearchSolver extends GenericSolver {
         this.totalLSRuns = totalLSRuns;
     }
 
-    public Solution perturbSolution(Solution solution, Set<Integer> nodeIDsInSolution, Set<Integer> allNodeIDs) {
-        // choose few pairs for edge exchange
-        int[] path = solution.getPath();
-        int size = path.length - 1;
-        for (int i = 0; i < 5; i++) {
-            int pos1 = (int) (Math.random() * size);
-            int pos2 = (int) (Math.random() * size);
-            while (
-                    pos2 == pos1 ||
-                    pos2 == (pos1 + 1) % size || // adjacent next
-                    pos2 == (pos1 - 1 + size) % size // adjacent previous
-            ) {
-                pos2 = (int) (Math.random() * size);
-            }
-
-            if (pos1 > pos2) {
-                int temp = pos1;
-                pos1 = pos2;
-                pos2 = temp;
-            }
-
-            int startNode1 = path[pos1];
-            int startNode2 = path[pos2];
-
-            int[] newPath = Arrays.copyOf(path, path.length);
-            int left = pos1 + 1;
-            int right = pos2;
-
-            while (left < right) {
-                int temp = newPath[left];
-                newPath[left] = newPath[right];
-                newPath[right] = temp;
-                left++;
-                right--;
-            }
-            path = newPath;
-        }
-
-        // node swap
-        int posA = (int) (Math.random() * size);
-        if (posA == 0) {
-            posA = 1;
-        }
-        int nodeA = path[posA];
-        Set<Integer> nodesOutside = new HashSet<>(allNodeIDs);
-        nodesOutside.removeAll(nodeIDsInSolution);
-
-        List<Integer> outsideList = new ArrayList<>(nodesOutside);
-        int randomIndex = (int) (Math.random() * outsideList.size());
-        int nodeB = outsideList.get(randomIndex);
+    /**
+     * Number of LS runs of the last getSolution call that ended in the local optimum they were kicked from.
+     */
+    public int getReturnsToIncumbent() {
+        return returnsToIncumbent;
+    }
 
-        path[posA] = nodeB;
-        nodeIDsInSolution.remove(nodeA);
-        nodeIDsInSolution.add(nodeB);
+    public void setSharedIncumbent(SharedIncumbent sharedIncumbent) {
+        this.sharedIncumbent = sharedIncumbent;
+    }
 
+    @Override
+    public EliteArchive getEliteArchive() {
+        return eliteArchive;
+    }
 
+    /**
+     * Applies a kick of the given strength to a copy of the solution; outsideNodes is updated accordingly.
+     */
+    public Solution perturbSolution(Solution solution, int strength) {
+        int n = solution.getPath().length - 1;
+        int[] path = Arrays.copyOf(solution.getPath(), n + 1);
+        perturbationOperators.perturb(perturbationType, path, n, outsideNodes, strength);
+        path[n] = path[0];
         return new Solution(
                 getNodes(),
                 getObjectiveMatrix(),
@@ -99,6 +157,30 @@ public class IteratedLocalSearchSolver extends GenericSolver {
         );
     }
 
+    private Solution copyOf(Solution solution) {
+        int[] path = solution.getPath();
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(),
+                Arrays.copyOf(path, path.length), getMethodName());
+    }
+
+    /**
+     * Updates outsideNodes after the selection changed from fromPath to toPath, in O(path length).
+     */
+    private void updateOutsideNodes(int[] fromPath, int[] toPath) {
+        for (int node : toPath) {
+            marked[node] = true;
+        }
+        for (int node : fromPath) {
+            if (!marked[node]) {
+                outsideNodes.add(node);
+            }
+        }
+        for (int node : toPath) {
+            outsideNodes.remove(node);
+            marked[node] = false;
+        }
+    }
+
     @Override
     public Solution getSolution(int startNodeID) {
 
@@ -111,31 +193,92 @@ public class IteratedLocalSearchSolver extends GenericSolver {
                 this.getNodes(),
                 "Steepest",
                 "Edge",
-                "Random"
+                startSolutionType
         );
         Set<Integer> allNodeIDs = getNodes().stream().map(Node::getId).collect(Collectors.toSet());
+        startSearch(stoppingTimeSeconds);
+        inheritInstanceReduction(lsSolver);
+        shareStopCondition(lsSolver);
         Solution currentSolution = lsSolver.getSolution(startNodeID);
         bestSolution = currentSolution;
         bestScore = currentSolution.getScore();
+        reportImprovement((int) bestScore, bestSolution);
+        eliteArchive = new EliteArchive(eliteSize);
+        eliteArchive.add(currentSolution.getTourHash(), currentSolution, (int) bestScore);
+        float searchTimeSeconds = (eliteSize > 0 || windowOptimization) ? stoppingTimeSeconds * (1 - PATH_RELINKING_SHARE) : stoppingTimeSeconds;
 
-        long startTime = System.nanoTime();
-        while (true) {
-            long currentTime = System.nanoTime();
-            float elapsedTimeSeconds = (currentTime - startTime) / 1_000_000_000.0f;
-            if (elapsedTimeSeconds >= stoppingTimeSeconds) {
-                break;
+        int totalNodes = getDistanceMatrix().length;
+        perturbationOperators = new PerturbationOperators(new SplittableRandom());
+        outsideNodes = new SparseIntSet(totalNodes);
+        marked = new boolean[totalNodes];
+        for (int node = 0; node < totalNodes; node++) {
+            outsideNodes.add(node);
+        }
+        updateOutsideNodes(new int[0], currentSolution.getPath());
+        int strength = MIN_STRENGTH;
+        returnsToIncumbent = 0;
+
+        int runsSinceImprovement = 0;
+
+        long searchEnd = System.nanoTime() + (long) (searchTimeSeconds * 1_000_000_000L);
+        while (!shouldStopNow() && System.nanoTime() < searchEnd) {
+            if (sharedIncumbent != null && runsSinceImprovement >= RESTART_AFTER_STALL) {
+                runsSinceImprovement = 0;
+                // one read of the incumbent, so the tour and its score belong together
+                Solution shared = sharedIncumbent.getSolution();
+                if (shared != null && shared.getScore() < bestScore) {
+                    Solution restart = copyOf(shared);
+                    lsSolver.ensureTourHash(restart);
+                    updateOutsideNodes(currentSolution.getPath(), restart.getPath());
+                    currentSolution = restart;
+                    bestSolution = restart;
+                    bestScore = restart.getScore();
+                    strength = MIN_STRENGTH;
+                }
             }
 
-            Set<Integer> nodeIDsInSolution = Arrays.stream(currentSolution.getPath()).boxed().collect(Collectors.toSet());
-            Solution perturbedSolution = perturbSolution(currentSolution, nodeIDsInSolution, allNodeIDs);
-            currentSolution = lsSolver.steepestLocalSearch(perturbedSolution, allNodeIDs);
+            Solution perturbedSolution = perturbSolution(currentSolution, strength);
+            Solution improvedSolution = lsSolver.steepestLocalSearch(perturbedSolution, allNodeIDs);
+            updateOutsideNodes(perturbedSolution.getPath(), improvedSolution.getPath());
+            totalLSRuns++;
+            runsSinceImprovement++;
 
-            float currentScore = currentSolution.getScore();
+            long hash = improvedSolution.getTourHash();
+            if (hash == currentSolution.getTourHash()) {
+                // the kick was too weak to leave the basin of the incumbent
+                returnsToIncumbent++;
+                strength = Math.min(MAX_STRENGTH, strength + 1);
+            } else {
+                strength = Math.max(MIN_STRENGTH, strength - 1);
+            }
+            currentSolution = improvedSolution;
+
+            // revisited local optimum: it was already scored, compared with the best and offered to the elites
+            if (eliteArchive.findDuplicate(hash) != null) {
+                continue;
+            }
+            int currentScore = currentSolution.getScore();
             if (currentScore < bestScore) {
                 bestSolution = currentSolution;
                 bestScore = currentScore;
+                runsSinceImprovement = 0;
+                reportImprovement(currentScore, currentSolution);
             }
-            totalLSRuns++;
+            eliteArchive.add(hash, currentSolution, currentScore);
+        }
+
+        if (eliteSize > 0 && !shouldStopNow()) {
+            PathRelinking pathRelinking = new PathRelinking(getDistanceMatrix(), getObjectiveMatrix(), getCosts(), getNodes());
+            pathRelinking.setInstanceReduction(getInstanceReduction());
+            pathRelinking.shareStopCondition(this);
+            Solution relinked = pathRelinking.postOptimize(eliteArchive.getElites(), this::shouldStopNow);
+            if (relinked.getScore() < bestScore) {
+                bestSolution = relinked;
+            }
+        }
+        if (windowOptimization && !shouldStopNow()) {
+            WindowDPOptimizer windowOptimizer = new WindowDPOptimizer(getDistanceMatrix(), getObjectiveMatrix(), getCosts(), getNodes());
+            bestSolution = windowOptimizer.optimize(bestSolution, this::shouldStopNow);
         }
         return bestSolution;
     }
@@ -5,12 +5,13 @@ import main.java.models.Move;
 import main.java.models.Node;
 import main.java.models.Solution;
 import main.java.utils.CSVParser;
+import main.java.utils.CandidateTable;
 
 
 public class LocalSearchCandidateMovesSolver extends LocalSearchSolver{
 
     private int candidateNeighborsCount;
-    private Map<Integer, int[]> nearestNeighborsCache = new HashMap<>();
+    private final CandidateTable candidateTable; // shared per instance, candidate type and candidateNeighborsCount
     // Steepest LS
     // Edge Exchange Intra-Route Neighborhood
     // Random Initial Solution
@@ -19,6 +20,19 @@ public class LocalSearchCandidateMovesSolver extends LocalSearchSolver{
                                            int[] costs,
                                            List<Node> nodes,
                                            int candidateNeighborsCount) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, candidateNeighborsCount, "Nearest");
+    }
+
+    /**
+     * @param candidateType how the candidate neighbors are chosen: "Nearest" (by distance + cost), "Quadrant"
+     *                      or "Alpha" (alpha-nearness), see CandidateTable
+     */
+    public LocalSearchCandidateMovesSolver(int[][] distanceMatrix,
+                                           int[][] objectiveMatrix,
+                                           int[] costs,
+                                           List<Node> nodes,
+                                           int candidateNeighborsCount,
+                                           String candidateType) {
         super(distanceMatrix,
                 objectiveMatrix,
                 costs,
@@ -28,42 +42,21 @@ public class LocalSearchCandidateMovesSolver extends LocalSearchSolver{
                 "Random"
         );
         this.candidateNeighborsCount = candidateNeighborsCount;
-        setMethodName("LocalSearchCandidateMovesSolver");
+        setMethodName("LocalSearchCandidateMovesSolver" + (Objects.equals(candidateType, "Nearest") ? "" : "-" + candidateType));
 
-        for (int i = 0; i < distanceMatrix.length; i++) {
-            nearestNeighborsCache.put(i, findNearestNeighbors(i));
-        }
+        this.candidateTable = CandidateTable.forInstance(nodes, distanceMatrix, costs, candidateNeighborsCount, candidateType);
     }
 
-    public int[] findNearestNeighbors(int currID) {
-        int[][] distanceMatrix = getDistanceMatrix();
-        int[] costs = getCosts();
-        int n = distanceMatrix.length;
-
-        PriorityQueue<int[]> heap = new PriorityQueue<>(
-                (a, b) -> Integer.compare(b[1], a[1])  // sort by distance descending
-        );
-
-        for (int i = 0; i < n; i++) {
-            if (i == currID) continue;
-
-            int cost = distanceMatrix[currID][i] + costs[i];
-
-            if (heap.size() < candidateNeighborsCount) {
-                heap.offer(new int[]{i, cost});
-            } else if (cost < heap.peek()[1]) {
-                heap.poll();
-                heap.offer(new int[]{i, cost});
-            }
-        }
+    public int getCandidateNeighborsCount() {
+        return candidateNeighborsCount;
+    }
 
-        int count = heap.size();
-        int[] nearestNeighbors = new int[count];
-        for (int i = 0; i < count; i++) {
-            nearestNeighbors[i] = heap.poll()[0];
-        }
+    public CandidateTable getCandidateTable() {
+        return candidateTable;
+    }
 
-        return nearestNeighbors;
+    public int[] getNearestNeighbors(int nodeID) {
+        return candidateTable.neighborsOf(nodeID);
     }
 
 
@@ -91,19 +84,24 @@ public class LocalSearchCandidateMovesSolver extends LocalSearchSolver{
         List<Move> neighborhood = new ArrayList<>();
 
         for (int nodeID: selectedNodeIDs) {
-            int[] NNs = nearestNeighborsCache.get(nodeID);
             int nodePos = positionMap.get(nodeID);
             int predNodeID = cycle[(nodePos - 1 + n) % n];
             int succNodeID = cycle[(nodePos + 1) % n];
 
-            for (int nnID: NNs) {
+            for (int j = 0; j < candidateTable.getK(); j++) {
+                int nnID = candidateTable.get(nodeID, j);
                 // case 1: nn not in the cycle -> generate node-swap moves
                 if (nonSelectedNodeIDs.contains(nnID)) {
-                    int delta = deltaNodeSwap(predNodeID, nnID, currentSolution);
-                    Move move1 = new Move("Inter", "-", predNodeID, nnID, delta);
-                    neighborhood.add(move1);
-                    Move move2 = new Move("Inter", "-", succNodeID, nnID, delta);
-                    neighborhood.add(move2);
+                    if (!isFixedSelected(predNodeID)) {
+                        int delta1 = deltaNodeSwap(predNodeID, nnID, currentSolution);
+                        Move move1 = new Move("Inter", "-", predNodeID, nnID, delta1);
+                        neighborhood.add(move1);
+                    }
+                    if (!isFixedSelected(succNodeID)) {
+                        int delta2 = deltaNodeSwap(succNodeID, nnID, currentSolution);
+                        Move move2 = new Move("Inter", "-", succNodeID, nnID, delta2);
+                        neighborhood.add(move2);
+                    }
                 }
                 // case 2: nn in the cycle -> generate edge-exchange moves
                 else if (selectedNodeIDs.contains(nnID)) {
@@ -115,10 +113,11 @@ public class LocalSearchCandidateMovesSolver extends LocalSearchSolver{
 
                     // edges cannot be adjacent
                     if (predNNID != nodeID && succNNID != nodeID) {
-                        int delta = deltaEdgeExchange(nodeID, nnID, currentSolution);
-                        Move move1 = new Move("Intra", "Edge", predNodeID, predNNID, delta);
+                        int delta1 = deltaEdgeExchange(predNodeID, predNNID, currentSolution);
+                        Move move1 = new Move("Intra", "Edge", predNodeID, predNNID, delta1);
                         neighborhood.add(move1);
-                        Move move2 = new Move("Intra", "Edge", nodeID, nnID, delta);
+                        int delta2 = deltaEdgeExchange(nodeID, nnID, currentSolution);
+                        Move move2 = new Move("Intra", "Edge", nodeID, nnID, delta2);
                         neighborhood.add(move2);
                     }
                 }
@@ -141,7 +140,8 @@ public class LocalSearchCandidateMovesSolver extends LocalSearchSolver{
                 objectiveMatrix,
                 costs,
                 nodes,
-                10
+                10,
+                "Nearest" // or "Quadrant", "Alpha"
         );
         System.out.println(solver.getMethodName());
         Solution solution = solver.getSolution(0);
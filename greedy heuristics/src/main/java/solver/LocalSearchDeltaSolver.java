@@ -21,13 +21,17 @@ public class LocalSearchDeltaSolver extends LocalSearchSolver{
 
 
     public LocalSearchDeltaSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, "Random");
+    }
+
+    public LocalSearchDeltaSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, String startSolutionType) {
         super(distanceMatrix,
                 objectiveMatrix,
                 costs,
                 nodes,
                 "Steepest",
                 "Edge",
-                "Random");
+                startSolutionType);
 
         setMethodName("LocalSearchDeltaSolver");
 
@@ -335,7 +339,7 @@ public class LocalSearchDeltaSolver extends LocalSearchSolver{
 
             // Regenerate inter moves ONLY for affected nodes
             for (int affectedNode : affectedNodes) {
-                if (!selectedNodeIDs.contains(affectedNode)) continue;
+                if (!selectedNodeIDs.contains(affectedNode) || isFixedSelected(affectedNode)) continue;
 
                 int pos = nodePositions.get(affectedNode);
 
@@ -462,6 +466,7 @@ public class LocalSearchDeltaSolver extends LocalSearchSolver{
      */
     @Override
     public Solution steepestLocalSearch(Solution currentSolution, Set<Integer> allNodeIDs) {
+        ensureTourHash(currentSolution);
         solutionNodes = Arrays.stream(currentSolution.getPath())
                 .boxed().collect(Collectors.toSet());
         Set<Integer> nonSelectedNodeIDs = new HashSet<>(allNodeIDs);
@@ -476,7 +481,7 @@ public class LocalSearchDeltaSolver extends LocalSearchSolver{
 
         currentIteration = 0;
 
-        while (!moveList.isEmpty()) {
+        while (!moveList.isEmpty() && !shouldStopNow()) {
             // Periodic full rebuild
             if (currentIteration > 0 && currentIteration % REBUILD_INTERVAL == 0) {
                 rebuildNeighborhood(currentSolution, nonSelectedNodeIDs, allNodeIDs);
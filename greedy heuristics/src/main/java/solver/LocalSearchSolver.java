@@ -1,8 +1,12 @@
 package main.java.solver;
 import main.java.models.Move;
 import main.java.models.Node;
+import main.java.models.RelocateSwapMove;
 import main.java.models.Solution;
 import main.java.utils.CSVParser;
+import main.java.utils.CandidateTable;
+import main.java.utils.InstanceCache;
+import main.java.utils.ZobristTourHasher;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -12,7 +16,17 @@ public class LocalSearchSolver extends GenericSolver {
 
     private final String localSearchType; // "Greedy" or "Steepest"
     private final String neighborhoodType; // "Node" or "Edge"
-    private final String startSolutionType; // "Random" or "Greedy"
+    private final String startSolutionType; // "Random", "Greedy", "GRASP", "Hilbert" or "MST"
+    private final String interType; // "Swap" or "RelocateSwap"
+
+    private static final InstanceCache<int[]> COST_ORDERS = new InstanceCache<>();
+
+    // orderings for pruning the node swaps, built once per instance and shared (see addImprovingSwapMoves)
+    private volatile int[] costOrder; // all node IDs by cost (ties: smaller ID)
+    private volatile CandidateTable swapOrder; // per node, the other nodes by 2 * distance from it + cost
+
+    // "Hilbert" / "MST" start: kept for the lifetime of the solver, so the curve order, grid index and tree are built once
+    private volatile ConstructiveSolver spatialStartSolver;
 
     public LocalSearchSolver(
             int[][] distanceMatrix,
@@ -22,13 +36,33 @@ public class LocalSearchSolver extends GenericSolver {
             String localSearchType,
             String neighborhoodType,
             String startSolutionType
+    ) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, localSearchType, neighborhoodType, startSolutionType, "Swap");
+    }
+
+    /**
+     * @param interType "Swap" (the incoming node takes the place of the outgoing one) or "RelocateSwap" (also
+     *                  inserting it at its best position anywhere in the cycle, see CycleInsertionCache)
+     */
+    public LocalSearchSolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            String localSearchType,
+            String neighborhoodType,
+            String startSolutionType,
+            String interType
     ) {
         // "Greedy_LS-Node_Exchange-Greedy_Start"
         // "Steepest_LS-Edge_Exchange-Random_Start"
-        super(distanceMatrix, objectiveMatrix, costs, nodes, (localSearchType + "_LS-" + neighborhoodType + "_Exchange-" + startSolutionType + "_Start"));
+        // "Steepest_LS-Edge_Exchange-Random_Start-RelocateSwap"
+        super(distanceMatrix, objectiveMatrix, costs, nodes, (localSearchType + "_LS-" + neighborhoodType + "_Exchange-" + startSolutionType + "_Start")
+                + (Objects.equals(interType, "RelocateSwap") ? "-RelocateSwap" : ""));
         this.localSearchType = localSearchType;
         this.neighborhoodType = neighborhoodType;
         this.startSolutionType = startSolutionType;
+        this.interType = interType;
     }
 
     public Solution getStartSolution(int startNodeID) {
@@ -39,6 +73,7 @@ public class LocalSearchSolver extends GenericSolver {
                     getCosts(),
                     getNodes()
             );
+            inheritInstanceReduction(randomSolver);
             return randomSolver.getSolution(startNodeID);
         } else if (Objects.equals(startSolutionType, "Greedy")) {
             GenericSolver greedySolver = new NNAny2RegretWeightedSolver(
@@ -46,11 +81,37 @@ public class LocalSearchSolver extends GenericSolver {
                     getObjectiveMatrix(),
                     getCosts(),
                     getNodes());
+            inheritInstanceReduction(greedySolver);
             return greedySolver.getSolution(startNodeID);
+        } else if (Objects.equals(startSolutionType, "GRASP")) {
+            GenericSolver graspSolver = new GraspSolver(
+                    getDistanceMatrix(),
+                    getObjectiveMatrix(),
+                    getCosts(),
+                    getNodes());
+            inheritInstanceReduction(graspSolver);
+            return graspSolver.getSolution(startNodeID);
+        } else if (Objects.equals(startSolutionType, "Hilbert") || Objects.equals(startSolutionType, "MST")) {
+            ConstructiveSolver solver = getSpatialStartSolver();
+            inheritInstanceReduction(solver);
+            return solver.getSolution(startNodeID);
         }
         return null;
     }
 
+    private ConstructiveSolver getSpatialStartSolver() {
+        ConstructiveSolver solver = spatialStartSolver;
+        if (solver == null) {
+            if (Objects.equals(startSolutionType, "Hilbert")) {
+                solver = new HilbertCurveSolver(getDistanceMatrix(), getObjectiveMatrix(), getCosts(), getNodes());
+            } else {
+                solver = new MSTSolver(getDistanceMatrix(), getObjectiveMatrix(), getCosts(), getNodes());
+            }
+            spatialStartSolver = solver;
+        }
+        return solver;
+    }
+
     /**
      * Delta evaluation for inter-route move: swap of two nodes (one from the cycle, one from outside)
      * @param oldNodeID
@@ -68,15 +129,28 @@ public class LocalSearchSolver extends GenericSolver {
                 break;
             }
         }
+        return deltaNodeSwapAt(path, path.length - 1, oldNodePosition, newNodeID);
+    }
+
+    /**
+     * O(1) delta of the inter-route move for callers that already know the position of the old node.
+     * @param cycle node IDs of the cycle (a closing node at index n is allowed but not required)
+     * @param n number of nodes in the cycle
+     * @param pos position of the node that leaves the cycle
+     * @param newNodeID node from outside that takes its place
+     * @return change in cost (delta): positive if worse, negative if better
+     */
+    public int deltaNodeSwapAt(int[] cycle, int n, int pos, int newNodeID) {
+        int[][] distanceMatrix = getDistanceMatrix();
+        int[] costs = getCosts();
+        int oldNodeID = cycle[pos];
         // get predecessor and successor of oldNode in the cycle
-        int predecessorID = (oldNodePosition == 0)
-                ? path[path.length - 2]   // predecessor of first node is the last real node
-                : path[oldNodePosition - 1];
-        int successorID = path[oldNodePosition + 1];
+        int predecessorID = cycle[(pos - 1 + n) % n];
+        int successorID = cycle[(pos + 1) % n];
 
         // compute delta
-        int oldCost = getDistanceMatrix()[predecessorID][oldNodeID] + getCosts()[oldNodeID] + getDistanceMatrix()[oldNodeID][successorID];
-        int newCost = getDistanceMatrix()[predecessorID][newNodeID] + getCosts()[newNodeID] + getDistanceMatrix()[newNodeID][successorID];
+        int oldCost = distanceMatrix[predecessorID][oldNodeID] + costs[oldNodeID] + distanceMatrix[oldNodeID][successorID];
+        int newCost = distanceMatrix[predecessorID][newNodeID] + costs[newNodeID] + distanceMatrix[newNodeID][successorID];
 
         return newCost - oldCost; // positive if worse, negative if better
     }
@@ -103,23 +177,33 @@ public class LocalSearchSolver extends GenericSolver {
                 if (pos1 != -1) break;
             }
         }
+        return deltaNodeExchangeAt(path, path.length - 1, pos1, pos2);
+    }
+
+    /**
+     * O(1) delta of the node exchange for callers that already know both positions.
+     * @param cycle node IDs of the cycle (a closing node at index n is allowed but not required)
+     * @param n number of nodes in the cycle
+     * @param pos1 position of the first node
+     * @param pos2 position of the second node (different from pos1)
+     * @return change in cost (delta): positive if worse, negative if better
+     */
+    public int deltaNodeExchangeAt(int[] cycle, int n, int pos1, int pos2) {
+        int[][] distanceMatrix = getDistanceMatrix();
 
         // Ensure pos1 < pos2 for consistency
         if (pos1 > pos2) {
             int temp = pos1;
             pos1 = pos2;
             pos2 = temp;
-            int tempID = nodeID1;
-            nodeID1 = nodeID2;
-            nodeID2 = tempID;
         }
+        int nodeID1 = cycle[pos1];
+        int nodeID2 = cycle[pos2];
 
-        int n = path.length - 1; // excluding the duplicate end node
-
-        int pred1 = path[(pos1 - 1 + n) % n];
-        int succ1 = path[(pos1 + 1) % n];
-        int pred2 = path[(pos2 - 1 + n) % n];
-        int succ2 = path[(pos2 + 1) % n];
+        int pred1 = cycle[(pos1 - 1 + n) % n];
+        int succ1 = cycle[(pos1 + 1) % n];
+        int pred2 = cycle[(pos2 - 1 + n) % n];
+        int succ2 = cycle[(pos2 + 1) % n];
 
         // Check if adjacent
         boolean adjacent = (pos2 - pos1 == 1);
@@ -130,33 +214,33 @@ public class LocalSearchSolver extends GenericSolver {
         if (adjacent) {
             // Adjacent case: A -> node1 -> node2 -> B
             // becomes:      A -> node2 -> node1 -> B
-            oldCost = getDistanceMatrix()[pred1][nodeID1]
-                   + getDistanceMatrix()[nodeID2][succ2];
+            oldCost = distanceMatrix[pred1][nodeID1]
+                   + distanceMatrix[nodeID2][succ2];
 
-            newCost = getDistanceMatrix()[pred1][nodeID2]
-                    + getDistanceMatrix()[nodeID1][succ2];
+            newCost = distanceMatrix[pred1][nodeID2]
+                    + distanceMatrix[nodeID1][succ2];
         } else if (wrapAroundAdjacent) {
         // Wrap-around adjacency: nodeID2 at end, nodeID1 at start
         // Old edges: pred2 -> nodeID2, nodeID2 -> nodeID1, nodeID1 -> succ1
-        oldCost = getDistanceMatrix()[pred2][nodeID2]
-                + getDistanceMatrix()[nodeID2][nodeID1]
-                + getDistanceMatrix()[nodeID1][succ1];
+        oldCost = distanceMatrix[pred2][nodeID2]
+                + distanceMatrix[nodeID2][nodeID1]
+                + distanceMatrix[nodeID1][succ1];
 
         // New edges after swap: pred2 -> nodeID1, nodeID1 -> nodeID2, nodeID2 -> succ1
-        newCost = getDistanceMatrix()[pred2][nodeID1]
-                + getDistanceMatrix()[nodeID1][nodeID2]
-                + getDistanceMatrix()[nodeID2][succ1];
+        newCost = distanceMatrix[pred2][nodeID1]
+                + distanceMatrix[nodeID1][nodeID2]
+                + distanceMatrix[nodeID2][succ1];
         } else {
             // Non-adjacent case
-            oldCost = getDistanceMatrix()[pred1][nodeID1] +
-                    getDistanceMatrix()[nodeID1][succ1] +
-                    getDistanceMatrix()[pred2][nodeID2] +
-                    getDistanceMatrix()[nodeID2][succ2];
-
-            newCost = getDistanceMatrix()[pred1][nodeID2] +
-                    getDistanceMatrix()[nodeID2][succ1] +
-                    getDistanceMatrix()[pred2][nodeID1] +
-                    getDistanceMatrix()[nodeID1][succ2];
+            oldCost = distanceMatrix[pred1][nodeID1] +
+                    distanceMatrix[nodeID1][succ1] +
+                    distanceMatrix[pred2][nodeID2] +
+                    distanceMatrix[nodeID2][succ2];
+
+            newCost = distanceMatrix[pred1][nodeID2] +
+                    distanceMatrix[nodeID2][succ1] +
+                    distanceMatrix[pred2][nodeID1] +
+                    distanceMatrix[nodeID1][succ2];
         }
 
         return newCost - oldCost;
@@ -191,13 +275,27 @@ public class LocalSearchSolver extends GenericSolver {
             }
         }
 
+        return deltaEdgeExchangeAt(path, path.length - 1, pos1, pos2);
+    }
+
+    /**
+     * O(1) delta of the 2-opt move for callers that already know both positions.
+     * Removes edges (cycle[pos1], cycle[pos1 + 1]) and (cycle[pos2], cycle[pos2 + 1]).
+     * @param cycle node IDs of the cycle (a closing node at index n is allowed but not required)
+     * @param n number of nodes in the cycle
+     * @return change in cost (delta): positive if worse, negative if better
+     */
+    public int deltaEdgeExchangeAt(int[] cycle, int n, int pos1, int pos2) {
+        int[][] distanceMatrix = getDistanceMatrix();
+        int startNodeID1 = cycle[pos1];
+        int startNodeID2 = cycle[pos2];
         //  get end nodes
-        int endNodeID1 = path[pos1 + 1];
-        int endNodeID2 = path[pos2 + 1];
+        int endNodeID1 = cycle[(pos1 + 1) % n];
+        int endNodeID2 = cycle[(pos2 + 1) % n];
 
         // compute delta
-        int oldCost = getDistanceMatrix()[startNodeID1][endNodeID1] + getDistanceMatrix()[startNodeID2][endNodeID2];
-        int newCost = getDistanceMatrix()[startNodeID1][startNodeID2] + getDistanceMatrix()[endNodeID1][endNodeID2];
+        int oldCost = distanceMatrix[startNodeID1][endNodeID1] + distanceMatrix[startNodeID2][endNodeID2];
+        int newCost = distanceMatrix[startNodeID1][startNodeID2] + distanceMatrix[endNodeID1][endNodeID2];
         return newCost - oldCost; // positive if worse, negative if better
     }
 
@@ -213,19 +311,14 @@ public class LocalSearchSolver extends GenericSolver {
 
         // depending on neighborhoodType, generate list of possible moves
         // 1. generate all inter moves (node swaps)
+        //    (only the ones that can improve, see addImprovingSwapMoves)
         Set<Integer> selectedNodeIDs = new HashSet<>(allNodeIDs);
         selectedNodeIDs.removeAll(nonSelectedNodeIDs);
         List<Move> allMoves = new ArrayList<>();
         int[] cycle = currentSolution.getPath();
         int delta;
 
-        for (int inNodeID: selectedNodeIDs) {
-            for (int outNodeID: nonSelectedNodeIDs) {
-                delta = deltaNodeSwap(inNodeID, outNodeID, currentSolution);
-                Move move = new Move("Inter", "-", inNodeID, outNodeID, delta);
-                allMoves.add(move);
-            }
-        }
+        addImprovingSwapMoves(allMoves, cycle, selectedNodeIDs, nonSelectedNodeIDs);
         // 2. generate all intra moves (node exchanges OR edge exchanges) depending on neighborhoodType
         if (Objects.equals(neighborhoodType, "Node")) {
             for (int i = 0; i < cycle.length - 1; i++) {
@@ -252,12 +345,219 @@ public class LocalSearchSolver extends GenericSolver {
         return allMoves;
     }
 
+    /**
+     * Adds the improving node swaps (delta < 0) without evaluating every selected x non-selected pair.
+     * Swapping u (between a and b) for v improves iff d(a,v) + d(v,b) + cost(v) < gain = d(a,u) + d(u,b) + cost(u).
+     * The left side is half of (2 d(a,v) + cost(v)) + (2 d(b,v) + cost(v)), so one of the two is below the gain:
+     * only the prefixes of the neighbor lists of a and b ordered by 2 d + cost need to be evaluated. By the
+     * triangle inequality (minus 1 for the rounding of the distances) d(a,v) + d(v,b) >= d(a,b) - 1, so only v
+     * with cost(v) <= gain - d(a,b) can improve either; when that prefix of the nodes ordered by cost is shorter,
+     * it is evaluated instead. Prefix lengths are binary searched, so each selected node costs O(log n) plus the
+     * evaluated candidates.
+     * The moves of a node are added in the order of the ID of the new node, so the steepest search breaks ties
+     * as with the full neighborhood.
+     */
+    public void addImprovingSwapMoves(List<Move> moves, int[] cycle, Set<Integer> selectedNodeIDs, Set<Integer> nonSelectedNodeIDs) {
+        int[][] distanceMatrix = getDistanceMatrix();
+        int[] costs = getCosts();
+        int[] byCost = getCostOrder();
+        CandidateTable byNeighbor = getSwapOrder();
+        int totalNodes = distanceMatrix.length;
+        int n = cycle.length - 1;
+
+        int[] position = new int[totalNodes];
+        for (int i = 0; i < n; i++) {
+            position[cycle[i]] = i;
+        }
+        boolean[] outside = new boolean[totalNodes];
+        for (int nodeID : nonSelectedNodeIDs) {
+            outside[nodeID] = true;
+        }
+        int[] seenBy = new int[totalNodes]; // selected node (+1) whose candidates last included the node
+
+        int[] improving = new int[nonSelectedNodeIDs.size()];
+        for (int inNodeID : selectedNodeIDs) {
+            if (isFixedSelected(inNodeID)) continue; // see InstanceReduction
+            int pos = position[inNodeID];
+            int a = cycle[(pos - 1 + n) % n];
+            int b = cycle[(pos + 1) % n];
+            int gain = distanceMatrix[a][inNodeID] + distanceMatrix[inNodeID][b] + costs[inNodeID];
+
+            int countByCost = countByCostAtMost(byCost, costs, gain - distanceMatrix[a][b]);
+            int countA = countBySwapOrderAtMost(byNeighbor, a, gain - 1);
+            int countB = countBySwapOrderAtMost(byNeighbor, b, gain - 1);
+
+            int improvingCount = 0;
+            if (countByCost <= countA + countB) {
+                for (int k = 0; k < countByCost; k++) {
+                    int outNodeID = byCost[k];
+                    if (outside[outNodeID] && distanceMatrix[a][outNodeID] + distanceMatrix[outNodeID][b] + costs[outNodeID] < gain) {
+                        improving[improvingCount++] = outNodeID;
+                    }
+                }
+            } else {
+                for (int side = 0; side < 2; side++) {
+                    int neighbor = side == 0 ? a : b;
+                    int count = side == 0 ? countA : countB;
+                    for (int k = 0; k < count; k++) {
+                        int outNodeID = byNeighbor.get(neighbor, k);
+                        if (outside[outNodeID] && seenBy[outNodeID] != inNodeID + 1
+                                && distanceMatrix[a][outNodeID] + distanceMatrix[outNodeID][b] + costs[outNodeID] < gain) {
+                            seenBy[outNodeID] = inNodeID + 1;
+                            improving[improvingCount++] = outNodeID;
+                        }
+                    }
+                }
+            }
+            Arrays.sort(improving, 0, improvingCount);
+            for (int k = 0; k < improvingCount; k++) {
+                int outNodeID = improving[k];
+                moves.add(new Move("Inter", "-", inNodeID, outNodeID, deltaNodeSwapAt(cycle, n, pos, outNodeID)));
+            }
+        }
+    }
+
+    /**
+     * Length of the prefix of the cost order with costs at most the limit.
+     */
+    private static int countByCostAtMost(int[] byCost, int[] costs, int limit) {
+        int low = 0;
+        int high = byCost.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (costs[byCost[middle]] <= limit) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Length of the prefix of the node's swap order with 2 * distance + cost at most the limit.
+     */
+    private int countBySwapOrderAtMost(CandidateTable byNeighbor, int node, int limit) {
+        int[] distances = getDistanceMatrix()[node];
+        int[] costs = getCosts();
+        int low = 0;
+        int high = byNeighbor.getK();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int other = byNeighbor.get(node, middle);
+            if (2 * distances[other] + costs[other] <= limit) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int[] getCostOrder() {
+        int[] order = costOrder;
+        if (order == null) {
+            int[] costs = getCosts();
+            order = COST_ORDERS.get(getDistanceMatrix(), costs, null, () -> {
+                long[] keys = new long[costs.length];
+                for (int node = 0; node < costs.length; node++) {
+                    keys[node] = ((long) costs[node] << 32) | node;
+                }
+                Arrays.sort(keys);
+                int[] sorted = new int[costs.length];
+                for (int k = 0; k < costs.length; k++) {
+                    sorted[k] = (int) keys[k];
+                }
+                return sorted;
+            });
+            costOrder = order;
+        }
+        return order;
+    }
+
+    private CandidateTable getSwapOrder() {
+        CandidateTable order = swapOrder;
+        if (order == null) {
+            int[][] distanceMatrix = getDistanceMatrix();
+            order = CandidateTable.forInstance(getNodes(), distanceMatrix, getCosts(), distanceMatrix.length - 1, "SwapOrder");
+            swapOrder = order;
+        }
+        return order;
+    }
+
+    /**
+     * Adds the relocate-swap moves that beat the plain swap of the same two nodes: the selected node u between
+     * a and b leaves the cycle, the gap is closed by the edge a - b, and the outside node v goes on its cheapest
+     * edge of the remaining cycle. That edge comes from the cache (its best edge not touching u, or a - b),
+     * so every move is evaluated in O(1).
+     */
+    public void addRelocateSwapMoves(List<Move> moves, int[] cycle, CycleInsertionCache insertionEdges) {
+        int[][] distanceMatrix = getDistanceMatrix();
+        int[] costs = getCosts();
+        for (int i = 0; i < cycle.length - 1; i++) {
+            int u = cycle[i];
+            if (isFixedSelected(u)) continue; // see InstanceReduction
+            int a = insertionEdges.getPrevious(u);
+            int b = insertionEdges.getNext(u);
+            int removal = distanceMatrix[a][b] - distanceMatrix[a][u] - distanceMatrix[u][b] - costs[u];
+            for (int v = 0; v < distanceMatrix.length; v++) {
+                if (insertionEdges.isInCycle(v)) continue;
+                int k = insertionEdges.bestEdgeWithout(v, u);
+                if (k == -1) continue;
+                int gapInsertion = distanceMatrix[a][v] + distanceMatrix[v][b] - distanceMatrix[a][b];
+                int insertion = insertionEdges.getEdgeCost(v, k);
+                if (insertion >= gapInsertion) continue; // the plain swap, already in the neighborhood
+                moves.add(new RelocateSwapMove(u, v, insertionEdges.getEdgeStart(v, k), insertionEdges.getEdgeEnd(v, k),
+                        removal + costs[v] + insertion));
+            }
+        }
+    }
+
+    private CycleInsertionCache newInsertionEdges(Solution solution) {
+        if (!Objects.equals(interType, "RelocateSwap")) {
+            return null;
+        }
+        CycleInsertionCache insertionEdges = new CycleInsertionCache(getDistanceMatrix());
+        insertionEdges.rebuild(solution.getPath());
+        return insertionEdges;
+    }
+
+    /**
+     * Closed path of the cycle without the outgoing node and with the incoming node on the given edge.
+     */
+    private int[] relocateSwap(int[] cycle, RelocateSwapMove move) {
+        int n = cycle.length - 1;
+        int[] shortened = new int[n - 1];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (cycle[i] != move.getStartNodeID()) {
+                shortened[count++] = cycle[i];
+            }
+        }
+        int[] newCycle = new int[n + 1];
+        int position = 0;
+        for (int i = 0; i < n - 1; i++) {
+            int node = shortened[i];
+            int following = shortened[(i + 1) % (n - 1)];
+            newCycle[position++] = node;
+            if ((node == move.getInsertAfterID() && following == move.getInsertBeforeID())
+                    || (node == move.getInsertBeforeID() && following == move.getInsertAfterID())) {
+                newCycle[position++] = move.getEndNodeID();
+            }
+        }
+        newCycle[n] = newCycle[0];
+        return newCycle;
+    }
+
     public Solution applyMove(Solution currentSolution, Move move) {
         int[] cycle = currentSolution.getPath();
         int[] newCycle = Arrays.copyOf(cycle, cycle.length);
 
         // 1. Apply inter move: node swap - replace oldNodeID with newNodeID in the cycle
-        if (Objects.equals(move.getType(), "Inter")) {
+        //    (relocate-swap: remove oldNodeID and insert newNodeID on the edge of the move)
+        if (move instanceof RelocateSwapMove relocateSwapMove) {
+            newCycle = relocateSwap(cycle, relocateSwapMove);
+        } else if (Objects.equals(move.getType(), "Inter")) {
             for (int i = 0; i < newCycle.length; i++) {
                 if (newCycle[i] == move.getStartNodeID()) {
                     newCycle[i] = move.getEndNodeID();
@@ -316,7 +616,7 @@ public class LocalSearchSolver extends GenericSolver {
                 }
             }
         }
-        return new Solution(
+        Solution newSolution = new Solution(
                 getNodes(),
                 getObjectiveMatrix(),
                 getDistanceMatrix(),
@@ -324,17 +624,79 @@ public class LocalSearchSolver extends GenericSolver {
                 newCycle,
                 this.getMethodName()
         );
+        if (currentSolution.hasTourHash()) {
+            newSolution.setTourHash(tourHashAfterMove(currentSolution.getTourHash(), cycle, newCycle, move));
+        }
+        return newSolution;
+    }
+
+    public ZobristTourHasher getTourHasher() {
+        return ZobristTourHasher.forSize(getDistanceMatrix().length);
+    }
+
+    /**
+     * Sets the Zobrist hash of the solution if it is not known yet, so applyMove can keep it up to date.
+     */
+    public void ensureTourHash(Solution solution) {
+        if (!solution.hasTourHash()) {
+            solution.setTourHash(getTourHasher().hash(solution.getPath()));
+        }
+    }
+
+    /**
+     * Hash of the tour after the move, in O(1) for node swaps and 2-opt moves once the positions are known.
+     */
+    private long tourHashAfterMove(long hash, int[] cycle, int[] newCycle, Move move) {
+        ZobristTourHasher hasher = getTourHasher();
+        int n = cycle.length - 1;
+        if (move instanceof RelocateSwapMove relocateSwapMove) {
+            for (int i = 0; i < n; i++) {
+                if (cycle[i] == move.getStartNodeID()) {
+                    int pred = cycle[i == 0 ? n - 1 : i - 1];
+                    int succ = cycle[i + 1];
+                    int x = relocateSwapMove.getInsertAfterID();
+                    int y = relocateSwapMove.getInsertBeforeID();
+                    int v = move.getEndNodeID();
+                    return hash ^ hasher.node(cycle[i]) ^ hasher.node(v)
+                            ^ hasher.edge(pred, cycle[i]) ^ hasher.edge(cycle[i], succ) ^ hasher.edge(pred, succ)
+                            ^ hasher.edge(x, y) ^ hasher.edge(x, v) ^ hasher.edge(v, y);
+                }
+            }
+        } else if (Objects.equals(move.getType(), "Inter")) {
+            for (int i = 0; i < n; i++) {
+                if (cycle[i] == move.getStartNodeID()) {
+                    int pred = cycle[i == 0 ? n - 1 : i - 1];
+                    return hash ^ hasher.nodeSwapDelta(pred, cycle[i], move.getEndNodeID(), cycle[i + 1]);
+                }
+            }
+        } else if (Objects.equals(move.getIntraType(), "Edge")) {
+            int pos1 = -1;
+            int pos2 = -1;
+            for (int i = 0; i < n; i++) {
+                if (cycle[i] == move.getStartNodeID()) pos1 = i;
+                else if (cycle[i] == move.getEndNodeID()) pos2 = i;
+            }
+            int p1 = Math.min(pos1, pos2);
+            int p2 = Math.max(pos1, pos2);
+            return hash ^ hasher.edgeExchangeDelta(cycle[p1], cycle[p1 + 1], cycle[p2], cycle[p2 + 1]);
+        }
+        return hasher.hash(newCycle);
     }
 
     public Solution greedyLocalSearch(Solution currentSolution, Set<Integer> allNodeIDs) {
+        ensureTourHash(currentSolution);
         Set<Integer> selectedNodeIDs = Arrays.stream(currentSolution.getPath()).boxed().collect(Collectors.toSet());
         Set<Integer> nonSelectedNodeIDs = new HashSet<>(allNodeIDs);
         nonSelectedNodeIDs.removeAll(selectedNodeIDs);
+        CycleInsertionCache insertionEdges = newInsertionEdges(currentSolution);
         int delta;
 
         int iteration = 0;
-        while (true) {
+        while (!shouldStopNow()) {
             List<Move> neighborhood = getNeighborhood(currentSolution, nonSelectedNodeIDs, allNodeIDs);
+            if (insertionEdges != null) {
+                addRelocateSwapMoves(neighborhood, currentSolution.getPath(), insertionEdges);
+            }
             // shuffle the list of moves
             Collections.shuffle(neighborhood);
             boolean improved = false;
@@ -342,6 +704,7 @@ public class LocalSearchSolver extends GenericSolver {
                 delta = move.getDelta();
                 if (delta < 0) { // found first improving move
                     currentSolution = applyMove(currentSolution, move);
+                    if (insertionEdges != null) insertionEdges.update(currentSolution.getPath());
                     // update selected and non-selected node IDs
                     if (Objects.equals(move.getType(), "Inter")) {
                         selectedNodeIDs.remove(move.getStartNodeID());
@@ -359,17 +722,23 @@ public class LocalSearchSolver extends GenericSolver {
                 return currentSolution;// no improving move found -> end Local Search
             }
         }
+        return currentSolution; // deadline or cancellation of the run
     }
 
     public Solution steepestLocalSearch(Solution currentSolution, Set<Integer> allNodeIDs) {
+        ensureTourHash(currentSolution);
         Set<Integer> selectedNodeIDs = Arrays.stream(currentSolution.getPath()).boxed().collect(Collectors.toSet());
         Set<Integer> nonSelectedNodeIDs = new HashSet<>(allNodeIDs);
         nonSelectedNodeIDs.removeAll(selectedNodeIDs);
+        CycleInsertionCache insertionEdges = newInsertionEdges(currentSolution);
         int delta;
 
         int iteration = 0;
-        while (true) {
+        while (!shouldStopNow()) {
             List<Move> neighborhood = getNeighborhood(currentSolution, nonSelectedNodeIDs, allNodeIDs);
+            if (insertionEdges != null) {
+                addRelocateSwapMoves(neighborhood, currentSolution.getPath(), insertionEdges);
+            }
 
             boolean improved = false;
 
@@ -386,6 +755,7 @@ public class LocalSearchSolver extends GenericSolver {
             }
             if (bestDelta < 0) {
                 currentSolution = applyMove(currentSolution, bestMove);
+                if (insertionEdges != null) insertionEdges.update(currentSolution.getPath());
                 // update selected and non-selected node IDs
                 if (Objects.equals(bestMove.getType(), "Inter")) {
                     selectedNodeIDs.remove(bestMove.getStartNodeID());
@@ -401,6 +771,7 @@ public class LocalSearchSolver extends GenericSolver {
                 return currentSolution;// no improving move found -> end Local Search
             }
         }
+        return currentSolution; // deadline or cancellation of the run
     }
 
 
@@ -423,6 +794,7 @@ public class LocalSearchSolver extends GenericSolver {
         String type = "Steepest";
         String neighborhood = "Edge";
         String start = "Random";
+        String inter = "Swap"; // or "RelocateSwap"
         String dataset = "TSPA";
         CSVParser parser = new CSVParser("src/main/data/" + dataset + ".csv", ";");
         int[][] distanceMatrix = parser.getDistanceMatrix();
@@ -437,7 +809,8 @@ public class LocalSearchSolver extends GenericSolver {
                 nodes,
                 type,
                 neighborhood,
-                start
+                start,
+                inter
         );
         System.out.println(solver.getMethodName());
         Solution solution = solver.getSolution(0);
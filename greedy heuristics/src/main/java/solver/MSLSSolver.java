@@ -1,26 +1,60 @@
 package main.java.solver;
 
+import main.java.models.EliteArchive;
 import main.java.models.Solution;
 
 public class MSLSSolver extends GenericSolver{
 
+    private final String startSolutionType; // "Random", "Greedy", "GRASP", "Hilbert" or "MST"
+    private final int eliteSize; // > 0 enables path relinking between the best local optima after the restarts
+    private final boolean windowOptimization; // runs WindowDPOptimizer on the best solution at the end
+    private EliteArchive eliteArchive;
+
     public MSLSSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, java.util.List<main.java.models.Node> nodes) {
-        super(distanceMatrix, objectiveMatrix, costs, nodes, "MSLS");
+        this(distanceMatrix, objectiveMatrix, costs, nodes, "Random");
+    }
+
+    public MSLSSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, java.util.List<main.java.models.Node> nodes, String startSolutionType) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, startSolutionType, 0);
+    }
+
+    public MSLSSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, java.util.List<main.java.models.Node> nodes,
+                      String startSolutionType, int eliteSize) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, startSolutionType, eliteSize, false);
+    }
+
+    public MSLSSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, java.util.List<main.java.models.Node> nodes,
+                      String startSolutionType, int eliteSize, boolean windowOptimization) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes,
+                (startSolutionType.equals("Random") ? "MSLS" : "MSLS-" + startSolutionType + "_Start") + (eliteSize > 0 ? "-PR" : "")
+                        + (windowOptimization ? "-WDP" : ""));
+        this.startSolutionType = startSolutionType;
+        this.eliteSize = eliteSize;
+        this.windowOptimization = windowOptimization;
+    }
+
+    @Override
+    public EliteArchive getEliteArchive() {
+        return eliteArchive;
     }
 
     @Override
     public Solution getSolution(int startNodeID) {
         float bestScore = Float.MAX_VALUE;
         Solution bestSoltuion = null;
+        eliteArchive = new EliteArchive(eliteSize);
+        startSearch();
 
-
-        for (int i = 0; i < 200; i++) {
+        for (int i = 0; i < 200 && (i == 0 || !shouldStopNow()); i++) {
 
             // Consider switching to delta solver if fixed
             GenericSolver LSSolver = new LocalSearchDeltaSolver(getDistanceMatrix(),
                     getObjectiveMatrix(),
                     getCosts(),
-                    getNodes());
+                    getNodes(),
+                    startSolutionType);
+            inheritInstanceReduction(LSSolver);
+            shareStopCondition(LSSolver);
 
 //            GenericSolver LSSolver = new LocalSearchSolver(getDistanceMatrix(),
 //                    getObjectiveMatrix(),
@@ -33,14 +67,36 @@ public class MSLSSolver extends GenericSolver{
 
             Solution currentSolution = LSSolver.getSolution(startNodeID);
 
+            // the same local optimum reached from another start: skip scoring it again
+            long hash = currentSolution.getTourHash();
+            if (eliteArchive.findDuplicate(hash) != null) {
+                continue;
+            }
+
             // Evaluate the improved solution
-            float currentScore = currentSolution.getScore();
+            int currentScore = currentSolution.getScore();
 
             // Update the best solution found so far
             if (currentScore < bestScore) {
                 bestScore = currentScore;
                 bestSoltuion = currentSolution;
+                reportImprovement(currentScore, currentSolution);
             }
+            eliteArchive.add(hash, currentSolution, currentScore);
+        }
+
+        if (eliteSize > 0 && !shouldStopNow()) {
+            PathRelinking pathRelinking = new PathRelinking(getDistanceMatrix(), getObjectiveMatrix(), getCosts(), getNodes());
+            pathRelinking.setInstanceReduction(getInstanceReduction());
+            pathRelinking.shareStopCondition(this);
+            Solution relinked = pathRelinking.postOptimize(eliteArchive.getElites(), this::shouldStopNow);
+            if (relinked.getScore() < bestScore) {
+                bestSoltuion = relinked;
+            }
+        }
+        if (windowOptimization && !shouldStopNow()) {
+            WindowDPOptimizer windowOptimizer = new WindowDPOptimizer(getDistanceMatrix(), getObjectiveMatrix(), getCosts(), getNodes());
+            bestSoltuion = windowOptimizer.optimize(bestSoltuion, this::shouldStopNow);
         }
 
         return bestSoltuion;
@@ -0,0 +1,136 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+import main.java.utils.HilbertCurve;
+import main.java.utils.SpatialGridIndex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tree-based construction for very large instances: a spanning tree over all nodes (minimum over the candidate
+ * edges below, not over all pairs), walked depth-first from the start node (the Euler tour of the tree with
+ * repeated nodes shortcut), gives a cycle through all nodes; shrinkCycle then drops half of the nodes.
+ *
+ * The tree is built with Kruskal's algorithm over candidate edges only - every node to the next CANDIDATE_WINDOW
+ * nodes in Hilbert curve order - instead of all n^2 pairs, so it takes O(n log n). An edge weighs its distance
+ * plus the mean cost of its ends, so cheap nodes form the trunk of the tree. The tree is built once per
+ * instance; every start node only walks it.
+ */
+public class MSTSolver extends ConstructiveSolver {
+    private static final int CANDIDATE_WINDOW = 8;
+
+    private volatile int[][] tree; // adjacency lists
+
+    public MSTSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "MST Shortcut");
+    }
+
+    private int[][] getTree() {
+        int[][] adjacency = tree;
+        if (adjacency == null) {
+            adjacency = buildTree();
+            tree = adjacency;
+        }
+        return adjacency;
+    }
+
+    private int[][] buildTree() {
+        int n = getNodes().size();
+        int[] order = HilbertCurve.order(getNodes());
+        SpatialGridIndex distances = getNodeIndex();
+        int[] costs = getCosts();
+
+        // candidate edges as (weight << 32 | edge number), sorted by weight
+        int window = Math.min(CANDIDATE_WINDOW, n - 1);
+        int[] edgeFrom = new int[n * window];
+        int[] edgeTo = new int[n * window];
+        long[] keys = new long[n * window];
+        int edges = 0;
+        for (int i = 0; i < n; i++) {
+            for (int w = 1; w <= window && i + w < n; w++) {
+                int a = order[i];
+                int b = order[i + w];
+                long weight = 2L * distances.distance(a, b) + costs[a] + costs[b];
+                edgeFrom[edges] = a;
+                edgeTo[edges] = b;
+                keys[edges] = (weight << 32) | edges;
+                edges++;
+            }
+        }
+        Arrays.sort(keys, 0, edges);
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        int[] degree = new int[n];
+        int[] treeFrom = new int[Math.max(0, n - 1)];
+        int[] treeTo = new int[Math.max(0, n - 1)];
+        int treeEdges = 0;
+        for (int k = 0; k < edges && treeEdges < n - 1; k++) {
+            int e = (int) keys[k];
+            int rootA = find(parent, edgeFrom[e]);
+            int rootB = find(parent, edgeTo[e]);
+            if (rootA == rootB) continue;
+            parent[rootA] = rootB;
+            treeFrom[treeEdges] = edgeFrom[e];
+            treeTo[treeEdges] = edgeTo[e];
+            degree[edgeFrom[e]]++;
+            degree[edgeTo[e]]++;
+            treeEdges++;
+        }
+
+        int[][] adjacency = new int[n][];
+        for (int i = 0; i < n; i++) {
+            adjacency[i] = new int[degree[i]];
+        }
+        int[] filled = new int[n];
+        for (int t = 0; t < treeEdges; t++) {
+            adjacency[treeFrom[t]][filled[treeFrom[t]]++] = treeTo[t];
+            adjacency[treeTo[t]][filled[treeTo[t]]++] = treeFrom[t];
+        }
+        return adjacency;
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * Nodes in depth-first preorder from the start node, i.e. the Euler tour without repeated nodes.
+     */
+    private int[] preorder(int[][] adjacency, int startNodeID) {
+        int n = adjacency.length;
+        int[] order = new int[n];
+        int count = 0;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int top = 0;
+        stack[top++] = startNodeID;
+        visited[startNodeID] = true;
+        while (top > 0) {
+            int node = stack[--top];
+            order[count++] = node;
+            for (int k = adjacency[node].length - 1; k >= 0; k--) {
+                int child = adjacency[node][k];
+                if (!visited[child]) {
+                    visited[child] = true;
+                    stack[top++] = child;
+                }
+            }
+        }
+        return order;
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        int[] path = shrinkCycle(preorder(getTree(), startNodeID), startNodeID);
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), path, getMethodName());
+    }
+}
@@ -1,78 +1,42 @@
 package main.java.solver;
 
-import main.java.models.InsertionInfo;
 import main.java.models.Node;
 import main.java.models.Solution;
 
 import java.util.List;
-import java.util.ArrayList;
 
-public class NN2Solver extends GenericSolver{
+/**
+ * Nearest neighbor "any": the path grows from the start node by inserting, at every step, an unvisited node at
+ * any position of the path - before the first node, between two nodes or after the last one.
+ * The node is chosen by insertionPriority of its cheapest and second cheapest insertion (here simply the
+ * cheapest insertion overall); the 2-regret subclasses only change the priority.
+ *
+ * The path lives in an InsertionCache: a primitive successor array with a sentinel closing the open path, so an
+ * insertion is O(1) without boxing or shifting, and the final int[] path is written only at the end.
+ */
+public class NN2Solver extends ConstructiveSolver {
     public NN2Solver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
         super(distanceMatrix, objectiveMatrix, costs, nodes, "Nearest Neighbor Any");
     }
 
-    protected InsertionInfo findNeighborAndPosition(ArrayList<Integer> currentPath, boolean[] visited) {
-        int bestNode = -1;
-        int bestPosition = -1;
-        int minScore = Integer.MAX_VALUE;
-
-        for (int node = 0; node < getObjectiveMatrix().length; node++) {
-            if (!visited[node]) {
-                for (int position = 0; position <= currentPath.size(); position++) {
-                    int tempScore = 0;
-                    if (position == 0){
-                        tempScore += getObjectiveMatrix()[node][currentPath.getFirst()];
-                        tempScore -= getCosts()[currentPath.getFirst()];
-                        tempScore += getCosts()[node];
-                    } else if (position == currentPath.size()) {
-                        tempScore += getObjectiveMatrix()[currentPath.getLast()][node];
-
-                    } else{
-                        tempScore += getObjectiveMatrix()[currentPath.get(position - 1)][node];
-                        tempScore += getObjectiveMatrix()[node][currentPath.get(position)];
-                        tempScore -= getObjectiveMatrix()[currentPath.get(position - 1)][currentPath.get(position)];
-                    }
-
-                    if (tempScore < minScore) {
-                        minScore = tempScore;
-                        bestNode = node;
-                        bestPosition = position;
-                    }
-                }
-            }
-        }
-        return new InsertionInfo(bestPosition, bestNode);
+    /**
+     * Priority of inserting a node, lower = earlier (ties: smaller node ID).
+     * @param bestCost cost of the cheapest insertion of the node
+     * @param secondBestCost cost of the second cheapest insertion of the node
+     */
+    protected double insertionPriority(int bestCost, int secondBestCost) {
+        return bestCost;
     }
 
     @Override
     public Solution getSolution(int startNodeID) {
-        int targetNodesCount = (int) Math.ceil((getDistanceMatrix().length - 1) / 2.0);
-        int nodeCount = 1;
-
-        ArrayList<Integer> path = new ArrayList<>();
-        path.add(startNodeID);
-
-        boolean[] visited = new boolean[getDistanceMatrix().length];
-        visited[startNodeID] = true;
-
-        while (nodeCount < targetNodesCount) {
-            InsertionInfo insertion = findNeighborAndPosition(path, visited);
-            int nextNode = insertion.nodeId;
-            int position = insertion.index;
-
-            path.add(position, nextNode);
-            visited[nextNode] = true;
-            nodeCount++;
+        int targetNodesCount = getTargetNodesCount();
+        InsertionCache insertionCache = new InsertionCache(getDistanceMatrix(), getCosts(), this::insertionPriority);
+        insertionCache.startPath(startNodeID);
+        while (insertionCache.getSize() < targetNodesCount) {
+            insertionCache.insert(insertionCache.bestNode());
         }
-        path.add(path.getFirst()); // End node is the start node
-
-        int[] finalPath = path.stream().mapToInt(i -> i).toArray();
-        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), finalPath, getMethodName());
-
-
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), insertionCache.toClosedPath(), getMethodName());
     }
 
-
-
 }
@@ -1,10 +1,8 @@
 package main.java.solver;
 
-import main.java.models.InsertionInfo;
 import main.java.models.Node;
 
 import java.util.List;
-import java.util.ArrayList;
 
 public class NNAny2RegretWeightedSolver extends NN2Solver{
     private final double regretWeight;
@@ -44,59 +42,9 @@ public class NNAny2RegretWeightedSolver extends NN2Solver{
     }
 
     @Override
-    protected InsertionInfo findNeighborAndPosition(ArrayList<Integer> currentPath, boolean[] visited) {
-        int bestNode = -1;
-        int bestPosition = -1;
-
-        double minWeightedScore = Integer.MAX_VALUE;
-
-        int tempScore1, tempScore2, tempPosition;
-
-        for (int node = 0; node < getObjectiveMatrix().length; node++) {
-            tempScore1 = Integer.MAX_VALUE;
-            tempScore2 = Integer.MAX_VALUE;
-            tempPosition = -1;
-
-            if (!visited[node]) {
-                for (int position = 0; position <= currentPath.size(); position++) {
-                    int tempScore = 0;
-
-                    if (position == 0){
-                        tempScore += getDistanceMatrix()[node][currentPath.getFirst()];
-                    } else if (position == currentPath.size()) {
-                        tempScore += getDistanceMatrix()[currentPath.getLast()][node];
-
-                    } else{
-                        tempScore += getDistanceMatrix()[currentPath.get(position - 1)][node];
-                        tempScore += getDistanceMatrix()[node][currentPath.get(position)];
-                        tempScore -= getDistanceMatrix()[currentPath.get(position - 1)][currentPath.get(position)];
-                    }
-
-                    tempScore += getCosts()[node];
-
-                    if (tempScore < tempScore1) {
-                        tempScore2 = tempScore1;
-                        tempScore1 = tempScore;
-                        tempPosition = position;
-
-                    } else if (tempScore < tempScore2) {
-                        tempScore2 = tempScore;
-                    }
-                }
-            }
-
-            int regret = tempScore2 - tempScore1;
-
-            double weightedScore = (scoreWeight * tempScore1) - (regretWeight * regret);
-
-
-            if (weightedScore < minWeightedScore ) {
-                minWeightedScore = weightedScore;
-                bestNode = node;
-                bestPosition = tempPosition;
-            }
-
-        }
-        return new InsertionInfo(bestPosition, bestNode);
+    protected double insertionPriority(int bestCost, int secondBestCost) {
+        // lowest weighted score (score weight * best cost - regret weight * regret) first
+        return scoreWeight * bestCost - regretWeight * (secondBestCost - bestCost);
     }
+
 }
@@ -0,0 +1,220 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Path relinking between elite solutions.
+ * Starting from an initial tour, every step applies the move with the best O(1) delta among those that bring
+ * the tour closer to the guiding tour:
+ *  - node swaps that replace a node missing in the guiding tour by one of the guiding tour's nodes,
+ *  - 2-opt moves that add an edge of the guiding tour and increase the number of shared edges.
+ * Each step decreases (different nodes, missing guiding edges) lexicographically, so the walk ends.
+ * Steepest local search is then applied only to the best few intermediate tours.
+ *
+ * Meant as a post-optimization phase: postOptimize relinks every ordered pair of an elite set.
+ */
+public class PathRelinking {
+
+    private static final int LOCAL_SEARCH_POINTS = 3;
+
+    private final LocalSearchSolver lsSolver;
+    private final Set<Integer> allNodeIDs;
+    private final int totalNodes;
+
+    public PathRelinking(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
+        this.lsSolver = new LocalSearchSolver(distanceMatrix, objectiveMatrix, costs, nodes, "Steepest", "Edge", "Random");
+        this.allNodeIDs = nodes.stream().map(Node::getId).collect(Collectors.toSet());
+        this.totalNodes = distanceMatrix.length;
+    }
+
+    /**
+     * Relinking on a reduced instance, see GenericSolver.setInstanceReduction.
+     */
+    public void setInstanceReduction(InstanceReduction reduction) {
+        lsSolver.setInstanceReduction(reduction);
+    }
+
+    /**
+     * Lets the local search runs of the relinking stop at the deadline or cancellation of the outer solver,
+     * see GenericSolver.shareStopCondition.
+     */
+    public void shareStopCondition(GenericSolver outer) {
+        outer.shareStopCondition(lsSolver);
+    }
+
+    /**
+     * Relinks every ordered pair of elites and returns the best solution seen (elites included).
+     */
+    public Solution postOptimize(List<Solution> elites) {
+        return postOptimize(elites, () -> false);
+    }
+
+    /**
+     * Same as postOptimize(elites), but stops (between relinks and inside the walk) once shouldStop returns true.
+     */
+    public Solution postOptimize(List<Solution> elites, BooleanSupplier shouldStop) {
+        Solution best = null;
+        for (Solution elite : elites) {
+            if (best == null || elite.getScore() < best.getScore()) {
+                best = elite;
+            }
+        }
+        for (Solution initial : elites) {
+            for (Solution guiding : elites) {
+                if (initial == guiding) continue;
+                if (shouldStop.getAsBoolean()) {
+                    return best;
+                }
+                Solution result = relink(initial, guiding, shouldStop);
+                if (result.getScore() < best.getScore()) {
+                    best = result;
+                }
+            }
+        }
+        return best;
+    }
+
+    private long edgeKey(int a, int b) {
+        return (long) Math.min(a, b) * totalNodes + Math.max(a, b);
+    }
+
+    /**
+     * Walks from initial towards guiding and returns the best local optimum found around the walk.
+     */
+    public Solution relink(Solution initial, Solution guiding) {
+        return relink(initial, guiding, () -> false);
+    }
+
+    /**
+     * Same as relink(initial, guiding), but cuts the walk short and skips the remaining local search runs once
+     * shouldStop returns true.
+     */
+    public Solution relink(Solution initial, Solution guiding, BooleanSupplier shouldStop) {
+        int n = initial.getPath().length - 1;
+        int[] cycle = Arrays.copyOf(initial.getPath(), n);
+        int[] positions = new int[totalNodes];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < n; i++) {
+            positions[cycle[i]] = i;
+        }
+
+        int[] guidingPath = guiding.getPath();
+        boolean[] inGuiding = new boolean[totalNodes];
+        int[] guidingPred = new int[totalNodes];
+        int[] guidingSucc = new int[totalNodes];
+        Set<Long> guidingEdges = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            int a = guidingPath[i];
+            int b = guidingPath[i + 1];
+            inGuiding[a] = true;
+            guidingSucc[a] = b;
+            guidingPred[b] = a;
+            guidingEdges.add(edgeKey(a, b));
+        }
+
+        int score = initial.getScore();
+        List<int[]> intermediates = new ArrayList<>();
+        List<Integer> intermediateScores = new ArrayList<>();
+
+        while (!shouldStop.getAsBoolean()) {
+            int bestDelta = Integer.MAX_VALUE;
+            int bestType = -1; // 0 = 2-opt, 1 = node swap
+            int bestArg1 = -1;
+            int bestArg2 = -1;
+
+            for (int pos = 0; pos < n; pos++) {
+                int a = cycle[pos];
+                if (!inGuiding[a]) {
+                    // swap a for a guiding node that is not in the tour yet
+                    for (int node = 0; node < totalNodes; node++) {
+                        if (!inGuiding[node] || positions[node] != -1) continue;
+                        int delta = lsSolver.deltaNodeSwapAt(cycle, n, pos, node);
+                        if (delta < bestDelta) {
+                            bestDelta = delta;
+                            bestType = 1;
+                            bestArg1 = pos;
+                            bestArg2 = node;
+                        }
+                    }
+                    continue;
+                }
+                for (int side = 0; side <= 1; side++) {
+                    int b = (side == 0) ? guidingSucc[a] : guidingPred[a];
+                    int posB = positions[b];
+                    if (posB == -1 || cycle[(pos + 1) % n] == b || cycle[(pos - 1 + n) % n] == b) continue;
+                    // the two 2-opt moves that make a and b adjacent
+                    for (int shift = 0; shift <= 1; shift++) {
+                        int p = (pos - shift + n) % n;
+                        int q = (posB - shift + n) % n;
+                        if (p == q || (p + 1) % n == q || (q + 1) % n == p) continue;
+                        int p1 = Math.min(p, q);
+                        int p2 = Math.max(p, q);
+                        int gained = (guidingEdges.contains(edgeKey(cycle[p1], cycle[p2])) ? 1 : 0)
+                                + (guidingEdges.contains(edgeKey(cycle[(p1 + 1) % n], cycle[(p2 + 1) % n])) ? 1 : 0)
+                                - (guidingEdges.contains(edgeKey(cycle[p1], cycle[(p1 + 1) % n])) ? 1 : 0)
+                                - (guidingEdges.contains(edgeKey(cycle[p2], cycle[(p2 + 1) % n])) ? 1 : 0);
+                        if (gained <= 0) continue;
+                        int delta = lsSolver.deltaEdgeExchangeAt(cycle, n, p1, p2);
+                        if (delta < bestDelta) {
+                            bestDelta = delta;
+                            bestType = 0;
+                            bestArg1 = p1;
+                            bestArg2 = p2;
+                        }
+                    }
+                }
+            }
+            if (bestType == -1) {
+                break;
+            }
+
+            if (bestType == 0) {
+                int left = bestArg1 + 1;
+                int right = bestArg2;
+                while (left < right) {
+                    int temp = cycle[left];
+                    cycle[left] = cycle[right];
+                    cycle[right] = temp;
+                    positions[cycle[left]] = left;
+                    positions[cycle[right]] = right;
+                    left++;
+                    right--;
+                }
+            } else {
+                positions[cycle[bestArg1]] = -1;
+                cycle[bestArg1] = bestArg2;
+                positions[bestArg2] = bestArg1;
+            }
+            score += bestDelta;
+            intermediates.add(Arrays.copyOf(cycle, n));
+            intermediateScores.add(score);
+        }
+
+        // the last point of the walk is (close to) the guiding solution itself, which is already a local optimum
+        int candidates = Math.max(0, intermediates.size() - 1);
+        Integer[] order = new Integer[candidates];
+        for (int i = 0; i < candidates; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(intermediateScores::get));
+
+        Solution best = initial.getScore() <= guiding.getScore() ? initial : guiding;
+        for (int k = 0; k < Math.min(LOCAL_SEARCH_POINTS, candidates) && !shouldStop.getAsBoolean(); k++) {
+            int[] point = intermediates.get(order[k]);
+            int[] path = Arrays.copyOf(point, n + 1);
+            path[n] = path[0];
+            Solution start = new Solution(lsSolver.getNodes(), lsSolver.getObjectiveMatrix(), lsSolver.getDistanceMatrix(),
+                    lsSolver.getCosts(), path, lsSolver.getMethodName());
+            Solution improved = lsSolver.steepestLocalSearch(start, allNodeIDs);
+            if (improved.getScore() < best.getScore()) {
+                best = improved;
+            }
+        }
+        return best;
+    }
+}
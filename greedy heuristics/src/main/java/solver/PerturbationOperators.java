@@ -0,0 +1,104 @@
+package main.java.solver;
+
+import main.java.utils.SparseIntSet;
+
+import java.util.SplittableRandom;
+
+/**
+ * Kicks for iterated local search, applied in place to a cycle (node IDs without the closing node).
+ * The strength s scales every kick:
+ *  - "DoubleBridge": s double-bridge moves (segments A B C D reconnected as A C B D), which 2-opt cannot undo in one step,
+ *  - "SegmentShuffle": the nodes of a random segment of 2 + 2s consecutive positions are shuffled,
+ *  - "MultiSwap": s selected nodes are swapped for random nodes outside of the cycle,
+ *  - "BridgeSwap": one double-bridge move followed by s swaps with outside nodes, so both the order and the selection change,
+ *  - "Mixed": one of DoubleBridge, SegmentShuffle and MultiSwap chosen at random for every kick,
+ *  - "Classic": the original fixed kick of 5 random 2-opt moves and one swap with an outside node (ignores s).
+ * Nodes outside of the cycle are kept in a SparseIntSet, so sampling and updating them is O(1).
+ */
+public class PerturbationOperators {
+
+    public static final String[] TYPES = {"DoubleBridge", "SegmentShuffle", "MultiSwap", "BridgeSwap", "Mixed", "Classic"};
+    private static final String[] MIXED_TYPES = {"DoubleBridge", "SegmentShuffle", "MultiSwap"};
+    private static final int CLASSIC_TWO_OPT_MOVES = 5;
+
+    private final SplittableRandom random;
+
+    public PerturbationOperators(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public void perturb(String type, int[] cycle, int n, SparseIntSet outside, int strength) {
+        switch (type) {
+            case "DoubleBridge" -> doubleBridge(cycle, n, strength);
+            case "SegmentShuffle" -> segmentShuffle(cycle, n, strength);
+            case "MultiSwap" -> multiSwap(cycle, n, outside, strength);
+            case "BridgeSwap" -> {
+                doubleBridge(cycle, n, 1);
+                multiSwap(cycle, n, outside, strength);
+            }
+            case "Mixed" -> perturb(MIXED_TYPES[random.nextInt(MIXED_TYPES.length)], cycle, n, outside, strength);
+            case "Classic" -> {
+                randomTwoOpts(cycle, n, CLASSIC_TWO_OPT_MOVES);
+                multiSwap(cycle, n, outside, 1);
+            }
+            default -> throw new IllegalArgumentException("Unknown perturbation type: " + type);
+        }
+    }
+
+    private void doubleBridge(int[] cycle, int n, int strength) {
+        int[] buffer = new int[n];
+        for (int k = 0; k < strength; k++) {
+            // cut points 0 < i < j < l < n split the cycle into A = [0, i), B = [i, j), C = [j, l), D = [l, n)
+            int i = 1 + random.nextInt(n - 3);
+            int j = i + 1 + random.nextInt(n - i - 2);
+            int l = j + 1 + random.nextInt(n - j - 1);
+            int size = 0;
+            for (int p = j; p < l; p++) buffer[size++] = cycle[p];
+            for (int p = i; p < j; p++) buffer[size++] = cycle[p];
+            System.arraycopy(buffer, 0, cycle, i, size);
+        }
+    }
+
+    private void randomTwoOpts(int[] cycle, int n, int count) {
+        for (int k = 0; k < count; k++) {
+            // the edges after pos1 and pos2 must not be adjacent
+            int pos1 = random.nextInt(n);
+            int pos2 = random.nextInt(n);
+            while (pos2 == pos1 || pos2 == (pos1 + 1) % n || pos2 == (pos1 - 1 + n) % n) {
+                pos2 = random.nextInt(n);
+            }
+            int left = Math.min(pos1, pos2) + 1;
+            int right = Math.max(pos1, pos2);
+            while (left < right) {
+                int temp = cycle[left];
+                cycle[left] = cycle[right];
+                cycle[right] = temp;
+                left++;
+                right--;
+            }
+        }
+    }
+
+    private void segmentShuffle(int[] cycle, int n, int strength) {
+        int length = Math.min(n, 2 + 2 * strength);
+        int start = random.nextInt(n);
+        for (int k = length - 1; k > 0; k--) {
+            int other = random.nextInt(k + 1);
+            int p = (start + k) % n;
+            int q = (start + other) % n;
+            int temp = cycle[p];
+            cycle[p] = cycle[q];
+            cycle[q] = temp;
+        }
+    }
+
+    private void multiSwap(int[] cycle, int n, SparseIntSet outside, int strength) {
+        for (int k = 0; k < strength && outside.size() > 0; k++) {
+            int pos = random.nextInt(n);
+            int newNode = outside.randomMember(random);
+            outside.remove(newNode);
+            outside.add(cycle[pos]);
+            cycle[pos] = newNode;
+        }
+    }
+}
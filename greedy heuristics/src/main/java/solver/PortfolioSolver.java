@@ -0,0 +1,128 @@
+package main.java.solver;
+
+import main.java.models.CancellationToken;
+import main.java.models.ImprovementRecord;
+import main.java.models.Node;
+import main.java.models.SharedIncumbent;
+import main.java.models.Solution;
+import main.java.models.SolveRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs several solvers concurrently on the same instance, one thread each, under a single deadline.
+ * Every new best solution of a solver is offered to a shared incumbent; the improvements of the incumbent
+ * are logged together with the name of the solver that found them. Iterated local search members restart
+ * from the incumbent when their own search stalls, so the other heuristics feed their chains.
+ * The portfolio stops every member as soon as its own run is stopped (deadline, cancellation or target score).
+ */
+public class PortfolioSolver extends GenericSolver {
+
+    private static final long POLL_MILLIS = 5;
+
+    private final List<GenericSolver> solvers;
+    private final float stoppingTimeSeconds;
+    private final List<ImprovementRecord> improvementLog = Collections.synchronizedList(new ArrayList<>());
+
+    public PortfolioSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes,
+                           List<GenericSolver> solvers, float stoppingTimeSeconds) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "Portfolio");
+        this.solvers = solvers;
+        this.stoppingTimeSeconds = stoppingTimeSeconds;
+    }
+
+    /**
+     * Improvements of the shared incumbent during the last getSolution call, in order.
+     */
+    public List<ImprovementRecord> getImprovementLog() {
+        return improvementLog;
+    }
+
+    /**
+     * The members must work on the same reduced instance; they get the reduction as well.
+     */
+    @Override
+    public void setInstanceReduction(InstanceReduction reduction) {
+        super.setInstanceReduction(reduction);
+        for (GenericSolver solver : solvers) {
+            solver.setInstanceReduction(reduction);
+        }
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        startSearch(stoppingTimeSeconds);
+        long startTime = System.nanoTime();
+        improvementLog.clear();
+        SharedIncumbent incumbent = new SharedIncumbent();
+        CancellationToken cancellationToken = new CancellationToken();
+
+        List<Future<Solution>> futures = new ArrayList<>();
+        Solution bestMemberResult = null;
+        ExecutorService pool = Executors.newFixedThreadPool(solvers.size());
+        try {
+            for (GenericSolver solver : solvers) {
+                if (solver instanceof IteratedLocalSearchSolver ilsSolver) {
+                    ilsSolver.setSharedIncumbent(incumbent);
+                }
+                SolveRequest request = new SolveRequest(getDeadlineNanos(), cancellationToken,
+                        (methodName, solution, elapsedNanos) -> offer(incumbent, methodName, solution, startTime),
+                        Integer.MIN_VALUE);
+                futures.add(pool.submit(() -> solver.getSolution(startNodeID, request)));
+            }
+            for (Future<Solution> future : futures) {
+                while (!future.isDone()) {
+                    if (shouldStopNow()) {
+                        cancellationToken.cancel();
+                    }
+                    Thread.sleep(POLL_MILLIS);
+                }
+                Solution result = future.get();
+                if (result != null && (bestMemberResult == null || result.getScore() < bestMemberResult.getScore())) {
+                    bestMemberResult = result;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancellationToken.cancel();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            for (GenericSolver solver : solvers) {
+                if (solver instanceof IteratedLocalSearchSolver ilsSolver) {
+                    ilsSolver.setSharedIncumbent(null);
+                }
+            }
+        }
+
+        Solution best = incumbent.getSolution();
+        if (best == null) {
+            // stopped before any member reported an improvement
+            best = bestMemberResult;
+        }
+        if (best == null) {
+            throw new IllegalStateException("Portfolio stopped before any member returned a solution");
+        }
+        best.setIterationCount(improvementLog.size());
+        return best;
+    }
+
+    private void offer(SharedIncumbent incumbent, String methodName, Solution solution, long startTime) {
+        int score = solution.getScore();
+        // readers of the incumbent do not lock; the lock only keeps the log in the order of the improvements
+        synchronized (improvementLog) {
+            if (!incumbent.offer(solution, score)) {
+                return;
+            }
+            improvementLog.add(new ImprovementRecord(methodName, score, System.nanoTime() - startTime));
+        }
+        reportImprovement(score, solution);
+    }
+}
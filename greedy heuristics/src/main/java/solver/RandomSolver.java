@@ -15,7 +15,7 @@ public class RandomSolver extends GenericSolver {
     @Override
     public Solution getSolution(int startNodeID) {
         int totalNodes = getNodes().size();
-        int nodesInCycle = (int) Math.ceil(totalNodes / 2.0);
+        int nodesInCycle = getTargetNodesCount();
 
         boolean[] selected = new boolean[totalNodes];
         int[] cycle = new int[nodesInCycle + 1]; // array of ids of size nodesInCycle + 1 (to return to start)
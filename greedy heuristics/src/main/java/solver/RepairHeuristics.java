@@ -0,0 +1,143 @@
+package main.java.solver;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Insertion heuristics that complete a partial cycle up to the target number of nodes.
+ * They mirror the constructive solvers (RandomSolver, GreedyCycleSolver, GreedyCycle2RegretWeightedSolver)
+ * but start from an arbitrary partial cycle instead of a single start node, so they can be used as
+ * repair operators by LNS-style solvers.
+ *
+ * Partial cycles are given as an array of node IDs (without the closing node) and its used size.
+ * Insertion at position i puts the node between cycle[i - 1] and cycle[i] (wrapping around).
+ */
+public class RepairHeuristics {
+
+    public static final String[] TYPES = {"Random", "GreedyCycle", "2-Regret"};
+
+    private static final double DEFAULT_REGRET_WEIGHT = 0.5;
+    private static final double DEFAULT_SCORE_WEIGHT = 0.5;
+
+    private final int[][] distanceMatrix;
+    private final int[] costs;
+
+    public RepairHeuristics(int[][] distanceMatrix, int[] costs) {
+        this.distanceMatrix = distanceMatrix;
+        this.costs = costs;
+    }
+
+    /**
+     * Repairs the partial cycle with the chosen heuristic.
+     * @param type one of TYPES
+     * @param partialCycle node IDs of the partial cycle, not closed
+     * @param size number of used entries of partialCycle
+     * @param selected selected[v] is true iff v is in the partial cycle; updated in place
+     * @param targetNodesCount number of nodes the final cycle should have
+     * @return closed path (first node repeated at the end) with targetNodesCount nodes
+     */
+    public int[] repair(String type, int[] partialCycle, int size, boolean[] selected, int targetNodesCount) {
+        int[] cycle = Arrays.copyOf(partialCycle, targetNodesCount + 1);
+        if (size == 0) {
+            cycle[0] = randomUnselected(selected);
+            selected[cycle[0]] = true;
+            size = 1;
+        }
+        switch (type) {
+            case "Random" -> size = repairRandom(cycle, size, selected, targetNodesCount);
+            case "GreedyCycle" -> size = repairGreedyCycle(cycle, size, selected, targetNodesCount);
+            case "2-Regret" -> size = repairRegret(cycle, size, selected, targetNodesCount);
+            default -> throw new IllegalArgumentException("Unknown repair type: " + type);
+        }
+        cycle[size] = cycle[0];
+        return cycle;
+    }
+
+    /**
+     * Increase of the objective when inserting node between a and b.
+     */
+    public int insertionCost(int a, int node, int b) {
+        return distanceMatrix[a][node] + distanceMatrix[node][b] - distanceMatrix[a][b] + costs[node];
+    }
+
+    /**
+     * Random node inserted at its cheapest position - the randomized counterpart of RandomSolver.
+     */
+    private int repairRandom(int[] cycle, int size, boolean[] selected, int targetNodesCount) {
+        while (size < targetNodesCount) {
+            int node = randomUnselected(selected);
+            int bestPosition = 0;
+            int bestIncrement = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                int increment = insertionCost(cycle[(i - 1 + size) % size], node, cycle[i]);
+                if (increment < bestIncrement) {
+                    bestIncrement = increment;
+                    bestPosition = i;
+                }
+            }
+            size = insert(cycle, size, bestPosition, node);
+            selected[node] = true;
+        }
+        return size;
+    }
+
+    /**
+     * Cheapest insertion over all (node, position) pairs, as in GreedyCycleSolver.
+     */
+    private int repairGreedyCycle(int[] cycle, int size, boolean[] selected, int targetNodesCount) {
+        int n = distanceMatrix.length;
+        while (size < targetNodesCount) {
+            int bestNode = -1;
+            int bestPosition = -1;
+            int bestIncrement = Integer.MAX_VALUE;
+            for (int candidate = 0; candidate < n; candidate++) {
+                if (selected[candidate]) continue;
+                for (int i = 0; i < size; i++) {
+                    int increment = insertionCost(cycle[(i - 1 + size) % size], candidate, cycle[i]);
+                    if (increment < bestIncrement) {
+                        bestIncrement = increment;
+                        bestNode = candidate;
+                        bestPosition = i;
+                    }
+                }
+            }
+            size = insert(cycle, size, bestPosition, bestNode);
+            selected[bestNode] = true;
+        }
+        return size;
+    }
+
+    /**
+     * Weighted 2-regret insertion, as in GreedyCycle2RegretWeightedSolver (with the same InsertionCache).
+     */
+    private int repairRegret(int[] cycle, int size, boolean[] selected, int targetNodesCount) {
+        InsertionCache insertionCache = new InsertionCache(distanceMatrix, costs, (bestCost, secondBestCost) -> {
+            // with a single edge there is no second option - regret is zero
+            int regret = (secondBestCost == Integer.MAX_VALUE) ? 0 : secondBestCost - bestCost;
+            return (DEFAULT_SCORE_WEIGHT * bestCost) - (DEFAULT_REGRET_WEIGHT * regret);
+        });
+        insertionCache.startCycle(Arrays.copyOf(cycle, size));
+        while (insertionCache.getSize() < targetNodesCount) {
+            int bestNode = insertionCache.bestNode();
+            insertionCache.insert(bestNode);
+            selected[bestNode] = true;
+        }
+        System.arraycopy(insertionCache.toClosedPath(), 0, cycle, 0, targetNodesCount);
+        return targetNodesCount;
+    }
+
+    private int insert(int[] cycle, int size, int position, int node) {
+        System.arraycopy(cycle, position, cycle, position + 1, size - position);
+        cycle[position] = node;
+        return size + 1;
+    }
+
+    private int randomUnselected(boolean[] selected) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int node = random.nextInt(selected.length);
+        while (selected[node]) {
+            node = random.nextInt(selected.length);
+        }
+        return node;
+    }
+}
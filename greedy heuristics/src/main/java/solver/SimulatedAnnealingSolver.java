@@ -0,0 +1,224 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Simulated annealing over random 2-opt, node exchange and node swap (inter-route) moves.
+ * Every move is evaluated in O(1) with the positional delta functions of LocalSearchSolver.
+ * The solution is kept in primitive arrays (cycle, node positions and a sparse set of outside nodes),
+ * so the sampling loop does not allocate.
+ *
+ * The start temperature is calibrated from the worsening deltas sampled around the start solution.
+ * During the run the temperature is adjusted every epoch so that the acceptance rate of worsening moves
+ * follows a target rate which decays geometrically with the elapsed fraction of the time budget.
+ */
+public class SimulatedAnnealingSolver extends GenericSolver {
+
+    private static final int CALIBRATION_SAMPLES = 2000;
+    private static final int EPOCH_LENGTH = 10_000;
+    private static final double INITIAL_ACCEPTANCE = 0.5;
+    private static final double FINAL_ACCEPTANCE = 0.0005;
+    // bounds of the per-epoch temperature correction
+    private static final double MAX_ADJUSTMENT = 1.25;
+
+    private final float stoppingTimeSeconds;
+    private final LocalSearchSolver deltaEvaluator;
+
+    // search state, reused between the samples of one run
+    private int[] cycle;
+    private int[] positions; // node ID -> position in cycle, -1 if outside
+    private int[] outside;   // sparse set of the nodes outside the cycle
+    private int[] outsideIndex;
+    private int cycleSize;
+    private int outsideSize;
+
+    // move sampled by sampleMove: type (0 = 2-opt, 1 = node exchange, 2 = node swap) and its arguments
+    private int moveType;
+    private int moveArg1;
+    private int moveArg2;
+
+    public SimulatedAnnealingSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, float stoppingTimeSeconds) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "Simulated Annealing");
+        this.stoppingTimeSeconds = stoppingTimeSeconds;
+        this.deltaEvaluator = new LocalSearchSolver(distanceMatrix, objectiveMatrix, costs, nodes, "Steepest", "Edge", "Random");
+    }
+
+    @Override
+    public void setInstanceReduction(InstanceReduction reduction) {
+        super.setInstanceReduction(reduction);
+        deltaEvaluator.setInstanceReduction(reduction);
+    }
+
+    private void initState(int[] path) {
+        int totalNodes = getDistanceMatrix().length;
+        cycleSize = path.length - 1;
+        cycle = Arrays.copyOf(path, cycleSize);
+        positions = new int[totalNodes];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < cycleSize; i++) {
+            positions[cycle[i]] = i;
+        }
+        outside = new int[totalNodes];
+        outsideIndex = new int[totalNodes];
+        outsideSize = 0;
+        for (int node = 0; node < totalNodes; node++) {
+            if (positions[node] == -1) {
+                outsideIndex[node] = outsideSize;
+                outside[outsideSize++] = node;
+            }
+        }
+    }
+
+    /**
+     * Samples a random move into moveType/moveArg1/moveArg2 and returns its delta.
+     */
+    private int sampleMove(SplittableRandom random) {
+        int n = cycleSize;
+        moveType = (outsideSize == 0) ? random.nextInt(2) : random.nextInt(3);
+        switch (moveType) {
+            case 0 -> {
+                // 2-opt: two non-adjacent edges starting at positions i < j
+                int i = random.nextInt(n);
+                int j = random.nextInt(n - 3);
+                j = (i + 2 + j) % n;
+                moveArg1 = Math.min(i, j);
+                moveArg2 = Math.max(i, j);
+                return deltaEvaluator.deltaEdgeExchangeAt(cycle, n, moveArg1, moveArg2);
+            }
+            case 1 -> {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n - 1);
+                if (j >= i) j++;
+                moveArg1 = i;
+                moveArg2 = j;
+                return deltaEvaluator.deltaNodeExchangeAt(cycle, n, i, j);
+            }
+            default -> {
+                moveArg1 = random.nextInt(n);
+                moveArg2 = outside[random.nextInt(outsideSize)];
+                return deltaEvaluator.deltaNodeSwapAt(cycle, n, moveArg1, moveArg2);
+            }
+        }
+    }
+
+    private void applySampledMove() {
+        switch (moveType) {
+            case 0 -> {
+                // reverse cycle[moveArg1 + 1 .. moveArg2]
+                int left = moveArg1 + 1;
+                int right = moveArg2;
+                while (left < right) {
+                    int temp = cycle[left];
+                    cycle[left] = cycle[right];
+                    cycle[right] = temp;
+                    positions[cycle[left]] = left;
+                    positions[cycle[right]] = right;
+                    left++;
+                    right--;
+                }
+            }
+            case 1 -> {
+                int a = cycle[moveArg1];
+                int b = cycle[moveArg2];
+                cycle[moveArg1] = b;
+                cycle[moveArg2] = a;
+                positions[a] = moveArg2;
+                positions[b] = moveArg1;
+            }
+            default -> {
+                int oldNode = cycle[moveArg1];
+                int newNode = moveArg2;
+                cycle[moveArg1] = newNode;
+                positions[newNode] = moveArg1;
+                positions[oldNode] = -1;
+                int index = outsideIndex[newNode];
+                outside[index] = oldNode;
+                outsideIndex[oldNode] = index;
+            }
+        }
+    }
+
+    /**
+     * Temperature at which a worsening move of average size is accepted with INITIAL_ACCEPTANCE probability.
+     */
+    private double calibrateTemperature(SplittableRandom random) {
+        long sum = 0;
+        int count = 0;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            int delta = sampleMove(random);
+            if (delta > 0) {
+                sum += delta;
+                count++;
+            }
+        }
+        double averageWorsening = (count == 0) ? 1.0 : (double) sum / count;
+        return -averageWorsening / Math.log(INITIAL_ACCEPTANCE);
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        SplittableRandom random = new SplittableRandom();
+        Solution startSolution = deltaEvaluator.getStartSolution(startNodeID);
+        initState(startSolution.getPath());
+        int currentScore = startSolution.getScore();
+        int bestScore = currentScore;
+        int[] bestCycle = Arrays.copyOf(cycle, cycleSize);
+
+        double temperature = calibrateTemperature(random);
+        startSearch(stoppingTimeSeconds);
+        long evaluations = 0;
+
+        // the clock, cancellation and target are checked once per epoch
+        while (!shouldStopNow()) {
+            double elapsedFraction = getElapsedFraction();
+            int epochStartBest = bestScore;
+            int worsening = 0;
+            int worseningAccepted = 0;
+            for (int k = 0; k < EPOCH_LENGTH; k++) {
+                int delta = sampleMove(random);
+                boolean accept;
+                if (delta <= 0) {
+                    accept = true;
+                } else {
+                    worsening++;
+                    accept = random.nextDouble() < Math.exp(-delta / temperature);
+                    if (accept) worseningAccepted++;
+                }
+                if (accept) {
+                    applySampledMove();
+                    currentScore += delta;
+                    if (currentScore < bestScore) {
+                        bestScore = currentScore;
+                        System.arraycopy(cycle, 0, bestCycle, 0, cycleSize);
+                    }
+                }
+            }
+            evaluations += EPOCH_LENGTH;
+            if (bestScore < epochStartBest) {
+                reportImprovement(bestScore, () -> toSolution(bestCycle));
+            }
+
+            // steer the acceptance rate of worsening moves towards the scheduled target
+            double target = INITIAL_ACCEPTANCE * Math.pow(FINAL_ACCEPTANCE / INITIAL_ACCEPTANCE, elapsedFraction);
+            double actual = (worsening == 0) ? target : (double) worseningAccepted / worsening;
+            double adjustment = (actual == 0) ? MAX_ADJUSTMENT : Math.sqrt(target / actual);
+            adjustment = Math.max(1 / MAX_ADJUSTMENT, Math.min(MAX_ADJUSTMENT, adjustment));
+            temperature *= adjustment;
+        }
+
+        Solution solution = toSolution(bestCycle);
+        solution.setIterationCount((int) Math.min(evaluations, Integer.MAX_VALUE));
+        return solution;
+    }
+
+    private Solution toSolution(int[] cycle) {
+        int[] path = Arrays.copyOf(cycle, cycleSize + 1);
+        path[cycleSize] = path[0];
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), path, getMethodName());
+    }
+}
@@ -0,0 +1,200 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+import main.java.utils.AttributeStampTable;
+import main.java.utils.CandidateTable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Tabu search over the candidate-move neighborhood of LocalSearchCandidateMovesSolver.
+ * For every node A of the cycle and each of its candidate neighbors B:
+ *  - if B is in the cycle: the two 2-opt moves that make A and B adjacent,
+ *  - if B is outside: swapping B in place of the predecessor or the successor of A.
+ * This keeps one iteration at O(k * n) delta evaluations.
+ *
+ * Attributes of applied moves are made tabu for a random tenure proportional to the cycle size: edges removed by a 2-opt may not be
+ * re-added and nodes swapped out may not re-enter. Tabu state lives in an AttributeStampTable
+ * (iteration stamps in a primitive hash table). A tabu move is still allowed if it leads to a solution
+ * better than the best one found so far (aspiration).
+ */
+public class TabuSearchSolver extends GenericSolver {
+
+    private static final int DEFAULT_CANDIDATES = 15;
+    // tenures as fractions of the cycle size
+    private static final double MIN_EDGE_TENURE = 0.4;
+    private static final double MAX_EDGE_TENURE = 0.8;
+    private static final double MIN_NODE_TENURE = 0.3;
+    private static final double MAX_NODE_TENURE = 0.6;
+
+    private static final int TWO_OPT = 0;
+    private static final int NODE_SWAP = 1;
+
+    private final float stoppingTimeSeconds;
+    private final LocalSearchCandidateMovesSolver candidateSolver;
+    private final CandidateTable candidates;
+
+    public TabuSearchSolver(
+            int[][] distanceMatrix,
+            int[][] objectiveMatrix,
+            int[] costs,
+            List<Node> nodes,
+            float stoppingTimeSeconds,
+            int candidateNeighborsCount
+    ) {
+        super(distanceMatrix, objectiveMatrix, costs, nodes, "Tabu Search");
+        this.stoppingTimeSeconds = stoppingTimeSeconds;
+        this.candidateSolver = new LocalSearchCandidateMovesSolver(distanceMatrix, objectiveMatrix, costs, nodes, candidateNeighborsCount);
+        this.candidates = candidateSolver.getCandidateTable();
+    }
+
+    public TabuSearchSolver(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes, float stoppingTimeSeconds) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, stoppingTimeSeconds, DEFAULT_CANDIDATES);
+    }
+
+    @Override
+    public void setInstanceReduction(InstanceReduction reduction) {
+        super.setInstanceReduction(reduction);
+        candidateSolver.setInstanceReduction(reduction);
+    }
+
+    private long edgeKey(int a, int b) {
+        int n = getDistanceMatrix().length;
+        return (long) Math.min(a, b) * n + Math.max(a, b);
+    }
+
+    private long nodeKey(int node) {
+        int n = getDistanceMatrix().length;
+        return (long) n * n + node;
+    }
+
+    private boolean adjacentEdges(int p, int q, int n) {
+        return p == q || (p + 1) % n == q || (q + 1) % n == p;
+    }
+
+    @Override
+    public Solution getSolution(int startNodeID) {
+        int totalNodes = getDistanceMatrix().length;
+        SplittableRandom random = new SplittableRandom();
+        Solution startSolution = candidateSolver.getStartSolution(startNodeID);
+        int n = startSolution.getPath().length - 1;
+        int[] cycle = Arrays.copyOf(startSolution.getPath(), n);
+        int[] positions = new int[totalNodes];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < n; i++) {
+            positions[cycle[i]] = i;
+        }
+
+        int minEdgeTenure = (int) (MIN_EDGE_TENURE * n);
+        int maxEdgeTenure = (int) (MAX_EDGE_TENURE * n);
+        int minNodeTenure = (int) (MIN_NODE_TENURE * n);
+        int maxNodeTenure = (int) (MAX_NODE_TENURE * n);
+        AttributeStampTable tabu = new AttributeStampTable(2 * maxEdgeTenure + maxNodeTenure);
+        int currentScore = startSolution.getScore();
+        int bestScore = currentScore;
+        int[] bestCycle = Arrays.copyOf(cycle, n);
+
+        startSearch(stoppingTimeSeconds);
+        int iteration = 0;
+
+        while (!shouldStop()) {
+            iteration++;
+            int bestDelta = Integer.MAX_VALUE;
+            int bestType = -1;
+            int bestArg1 = -1;
+            int bestArg2 = -1;
+
+            for (int posA = 0; posA < n; posA++) {
+                int nodeA = cycle[posA];
+                int predPos = (posA - 1 + n) % n;
+                int succPos = (posA + 1) % n;
+                for (int j = 0; j < candidates.getK(); j++) {
+                    int nodeB = candidates.get(nodeA, j);
+                    int posB = positions[nodeB];
+                    if (posB != -1) {
+                        // 2-opt adding edge (A, B): remove (A, succA), (B, succB) or (predA, A), (predB, B)
+                        for (int shift = 0; shift <= 1; shift++) {
+                            int p = (posA - shift + n) % n;
+                            int q = (posB - shift + n) % n;
+                            if (adjacentEdges(p, q, n)) continue;
+                            int p1 = Math.min(p, q);
+                            int p2 = Math.max(p, q);
+                            int delta = candidateSolver.deltaEdgeExchangeAt(cycle, n, p1, p2);
+                            if (delta >= bestDelta) continue;
+                            boolean isTabu = tabu.isActive(edgeKey(cycle[p1], cycle[p2]), iteration)
+                                    || tabu.isActive(edgeKey(cycle[(p1 + 1) % n], cycle[(p2 + 1) % n]), iteration);
+                            if (isTabu && currentScore + delta >= bestScore) continue;
+                            bestDelta = delta;
+                            bestType = TWO_OPT;
+                            bestArg1 = p1;
+                            bestArg2 = p2;
+                        }
+                    } else {
+                        // B enters the cycle next to A, replacing A's predecessor or successor
+                        boolean isTabu = tabu.isActive(nodeKey(nodeB), iteration);
+                        for (int side = 0; side <= 1; side++) {
+                            int pos = (side == 0) ? predPos : succPos;
+                            int delta = candidateSolver.deltaNodeSwapAt(cycle, n, pos, nodeB);
+                            if (delta >= bestDelta) continue;
+                            if (isTabu && currentScore + delta >= bestScore) continue;
+                            bestDelta = delta;
+                            bestType = NODE_SWAP;
+                            bestArg1 = pos;
+                            bestArg2 = nodeB;
+                        }
+                    }
+                }
+            }
+
+            if (bestType == -1) {
+                // every move is tabu and none satisfies aspiration - let the memory age
+                continue;
+            }
+
+            if (bestType == TWO_OPT) {
+                int p1 = bestArg1;
+                int p2 = bestArg2;
+                int edgeTenure = minEdgeTenure + random.nextInt(maxEdgeTenure - minEdgeTenure + 1);
+                tabu.put(edgeKey(cycle[p1], cycle[(p1 + 1) % n]), iteration + edgeTenure, iteration);
+                tabu.put(edgeKey(cycle[p2], cycle[(p2 + 1) % n]), iteration + edgeTenure, iteration);
+                int left = p1 + 1;
+                int right = p2;
+                while (left < right) {
+                    int temp = cycle[left];
+                    cycle[left] = cycle[right];
+                    cycle[right] = temp;
+                    positions[cycle[left]] = left;
+                    positions[cycle[right]] = right;
+                    left++;
+                    right--;
+                }
+            } else {
+                int oldNode = cycle[bestArg1];
+                int nodeTenure = minNodeTenure + random.nextInt(maxNodeTenure - minNodeTenure + 1);
+                tabu.put(nodeKey(oldNode), iteration + nodeTenure, iteration);
+                cycle[bestArg1] = bestArg2;
+                positions[bestArg2] = bestArg1;
+                positions[oldNode] = -1;
+            }
+            currentScore += bestDelta;
+            if (currentScore < bestScore) {
+                bestScore = currentScore;
+                System.arraycopy(cycle, 0, bestCycle, 0, n);
+                reportImprovement(bestScore, () -> toSolution(bestCycle, n));
+            }
+        }
+
+        Solution solution = toSolution(bestCycle, n);
+        solution.setIterationCount(iteration);
+        return solution;
+    }
+
+    private Solution toSolution(int[] cycle, int n) {
+        int[] path = Arrays.copyOf(cycle, n + 1);
+        path[n] = path[0];
+        return new Solution(getNodes(), getObjectiveMatrix(), getDistanceMatrix(), getCosts(), path, getMethodName());
+    }
+}
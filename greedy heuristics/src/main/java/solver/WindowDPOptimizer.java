@@ -0,0 +1,284 @@
+package main.java.solver;
+
+import main.java.models.Node;
+import main.java.models.Solution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Post-optimization that re-solves windows of k consecutive tour positions exactly.
+ * The nodes just before and after a window stay fixed; Held-Karp dynamic programming over subsets
+ * (dp[mask][last] = cheapest path from the left anchor through the nodes of mask, ending at last) finds the
+ * best order of the window's nodes, in O(2^k * k^2). With outsideCandidates > 0 the subsets may also take
+ * the nearest unselected nodes in place of window nodes, as long as the window keeps k nodes, so the pass
+ * can also change the selection.
+ *
+ * Windows of one batch are separated by one fixed position, so they do not overlap and are solved in
+ * parallel on the same snapshot of the tour; the results are applied one by one, skipping a window if
+ * a window with a larger gain in the batch already took one of its outside nodes. Sweeps over all window offsets
+ * repeat until no window improves.
+ */
+public class WindowDPOptimizer {
+
+    public static final int DEFAULT_WINDOW_SIZE = 8;
+    public static final int DEFAULT_OUTSIDE_CANDIDATES = 4;
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final int[][] distanceMatrix;
+    private final int[][] objectiveMatrix;
+    private final int[] costs;
+    private final List<Node> nodes;
+    private final int windowSize;
+    private final int outsideCandidates;
+    private final int workersCount;
+
+    public WindowDPOptimizer(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes,
+                             int windowSize, int outsideCandidates, int workersCount) {
+        this.distanceMatrix = distanceMatrix;
+        this.objectiveMatrix = objectiveMatrix;
+        this.costs = costs;
+        this.nodes = nodes;
+        this.windowSize = windowSize;
+        this.outsideCandidates = outsideCandidates;
+        this.workersCount = workersCount;
+    }
+
+    public WindowDPOptimizer(int[][] distanceMatrix, int[][] objectiveMatrix, int[] costs, List<Node> nodes) {
+        this(distanceMatrix, objectiveMatrix, costs, nodes, DEFAULT_WINDOW_SIZE, DEFAULT_OUTSIDE_CANDIDATES,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Result of one window: the new nodes of its positions and the change of the objective.
+     */
+    private static final class WindowResult {
+        private final int start;
+        private final int[] order;
+        private final int delta;
+
+        private WindowResult(int start, int[] order, int delta) {
+            this.start = start;
+            this.order = order;
+            this.delta = delta;
+        }
+    }
+
+    /**
+     * Sweeps windows over the solution until no window improves and returns the improved solution
+     * (the same object if nothing improved).
+     */
+    public Solution optimize(Solution solution) {
+        return optimize(solution, () -> false);
+    }
+
+    /**
+     * Same as optimize(solution), but stops after the current batch of windows once shouldStop returns true.
+     */
+    public Solution optimize(Solution solution, BooleanSupplier shouldStop) {
+        int n = solution.getPath().length - 1;
+        int k = Math.min(windowSize, n - 2);
+        if (k < 2) {
+            return solution;
+        }
+        int[] cycle = Arrays.copyOf(solution.getPath(), n);
+        boolean[] selected = new boolean[distanceMatrix.length];
+        for (int node : cycle) {
+            selected[node] = true;
+        }
+        int windowsPerBatch = n / (k + 1);
+        boolean improvedAny = false;
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(workersCount, windowsPerBatch)));
+        try {
+            boolean improved = true;
+            while (improved && !shouldStop.getAsBoolean()) {
+                improved = false;
+                for (int offset = 0; offset <= k && !shouldStop.getAsBoolean(); offset++) {
+                    int[] snapshot = Arrays.copyOf(cycle, n);
+                    boolean[] snapshotSelected = Arrays.copyOf(selected, selected.length);
+                    List<Future<WindowResult>> futures = new ArrayList<>();
+                    for (int w = 0; w < windowsPerBatch; w++) {
+                        int start = offset + w * (k + 1);
+                        futures.add(pool.submit(() -> solveWindow(snapshot, snapshotSelected, n, start, k)));
+                    }
+                    List<WindowResult> results = new ArrayList<>();
+                    for (Future<WindowResult> future : futures) {
+                        WindowResult result = future.get();
+                        if (result != null) {
+                            results.add(result);
+                        }
+                    }
+                    // largest gains first, so a conflict on an outside node drops the smaller gain
+                    results.sort((r1, r2) -> Integer.compare(r1.delta, r2.delta));
+                    for (WindowResult result : results) {
+                        if (apply(cycle, selected, n, result)) {
+                            improved = true;
+                            improvedAny = true;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (!improvedAny) {
+            return solution;
+        }
+        int[] path = Arrays.copyOf(cycle, n + 1);
+        path[n] = path[0];
+        return new Solution(nodes, objectiveMatrix, distanceMatrix, costs, path, solution.getMethodName(), solution.getIterationCount());
+    }
+
+    /**
+     * Applies the window unless one of its new nodes was taken by a window applied before it in the same batch.
+     */
+    private boolean apply(int[] cycle, boolean[] selected, int n, WindowResult result) {
+        int k = result.order.length;
+        for (int t = 0; t < k; t++) {
+            int node = result.order[t];
+            if (selected[node] && !inWindow(cycle, n, result.start, k, node)) {
+                return false;
+            }
+        }
+        for (int t = 0; t < k; t++) {
+            selected[cycle[(result.start + t) % n]] = false;
+        }
+        for (int t = 0; t < k; t++) {
+            cycle[(result.start + t) % n] = result.order[t];
+            selected[result.order[t]] = true;
+        }
+        return true;
+    }
+
+    private boolean inWindow(int[] cycle, int n, int start, int k, int node) {
+        for (int t = 0; t < k; t++) {
+            if (cycle[(start + t) % n] == node) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Solves one window exactly; returns null if its current order is already optimal.
+     */
+    private WindowResult solveWindow(int[] cycle, boolean[] selected, int n, int start, int k) {
+        int left = cycle[(start - 1 + n) % n];
+        int right = cycle[(start + k) % n];
+
+        // pool of nodes: the window's own nodes first, then the nearest unselected ones
+        int[] pool = new int[k + outsideCandidates];
+        int poolSize = 0;
+        int currentCost = 0;
+        int previous = left;
+        for (int t = 0; t < k; t++) {
+            int node = cycle[(start + t) % n];
+            pool[poolSize++] = node;
+            currentCost += distanceMatrix[previous][node] + costs[node];
+            previous = node;
+        }
+        currentCost += distanceMatrix[previous][right];
+        poolSize = addOutsideCandidates(pool, poolSize, selected, left, right);
+
+        int full = 1 << poolSize;
+        int[][] dp = new int[full][poolSize];
+        for (int[] row : dp) {
+            Arrays.fill(row, INF);
+        }
+        for (int j = 0; j < poolSize; j++) {
+            dp[1 << j][j] = distanceMatrix[left][pool[j]] + costs[pool[j]];
+        }
+        int bestCost = INF;
+        int bestMask = -1;
+        int bestLast = -1;
+        for (int mask = 1; mask < full; mask++) {
+            int size = Integer.bitCount(mask);
+            if (size > k) continue;
+            for (int last = 0; last < poolSize; last++) {
+                int value = dp[mask][last];
+                if (value >= INF) continue;
+                if (size == k) {
+                    int total = value + distanceMatrix[pool[last]][right];
+                    if (total < bestCost) {
+                        bestCost = total;
+                        bestMask = mask;
+                        bestLast = last;
+                    }
+                    continue;
+                }
+                for (int next = 0; next < poolSize; next++) {
+                    if ((mask & (1 << next)) != 0) continue;
+                    int candidate = value + distanceMatrix[pool[last]][pool[next]] + costs[pool[next]];
+                    int nextMask = mask | (1 << next);
+                    if (candidate < dp[nextMask][next]) {
+                        dp[nextMask][next] = candidate;
+                    }
+                }
+            }
+        }
+        if (bestCost >= currentCost) {
+            return null;
+        }
+
+        // walk the DP table back from the best end
+        int[] order = new int[k];
+        int mask = bestMask;
+        int last = bestLast;
+        for (int t = k - 1; t >= 0; t--) {
+            order[t] = pool[last];
+            int prevMask = mask ^ (1 << last);
+            if (prevMask == 0) break;
+            int target = dp[mask][last] - costs[pool[last]];
+            for (int prev = 0; prev < poolSize; prev++) {
+                if ((prevMask & (1 << prev)) != 0 && dp[prevMask][prev] + distanceMatrix[pool[prev]][pool[last]] == target) {
+                    last = prev;
+                    break;
+                }
+            }
+            mask = prevMask;
+        }
+        return new WindowResult(start, order, bestCost - currentCost);
+    }
+
+    /**
+     * Adds the unselected nodes closest (distance plus cost) to the window's anchors and nodes to the pool.
+     */
+    private int addOutsideCandidates(int[] pool, int poolSize, boolean[] selected, int left, int right) {
+        int windowNodes = poolSize;
+        int[] bestValues = new int[outsideCandidates];
+        int count = 0;
+        for (int node = 0; node < distanceMatrix.length; node++) {
+            if (selected[node]) continue;
+            int value = Math.min(distanceMatrix[left][node], distanceMatrix[right][node]);
+            for (int t = 0; t < windowNodes; t++) {
+                value = Math.min(value, distanceMatrix[pool[t]][node]);
+            }
+            value += costs[node];
+            // insertion into the sorted list of the best candidates so far
+            int position = count;
+            while (position > 0 && bestValues[position - 1] > value) {
+                position--;
+            }
+            if (position >= outsideCandidates) continue;
+            int last = Math.min(count, outsideCandidates - 1);
+            for (int t = last; t > position; t--) {
+                bestValues[t] = bestValues[t - 1];
+                pool[windowNodes + t] = pool[windowNodes + t - 1];
+            }
+            bestValues[position] = value;
+            pool[windowNodes + position] = node;
+            count = Math.min(count + 1, outsideCandidates);
+        }
+        return windowNodes + count;
+    }
+}
@@ -0,0 +1,119 @@
+package main.java.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from non-negative long attribute keys to int iteration stamps.
+ * Used as tabu memory: an attribute is active while its stamp is greater than the current iteration.
+ * Expired entries are reused on insertion and dropped when the table is rehashed, so the table stays
+ * small without ever scanning a list of attributes.
+ */
+public class AttributeStampTable {
+    private static final long EMPTY = -1L;
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] keys;
+    private int[] stamps;
+    private int mask;
+    private int occupied;
+
+    public AttributeStampTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 4) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        stamps = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        occupied = 0;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Stamp stored for the key, or 0 if the key was never stored.
+     */
+    public int get(long key) {
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                return stamps[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return 0;
+    }
+
+    public boolean isActive(long key, int iteration) {
+        return get(key) > iteration;
+    }
+
+    /**
+     * Stores the stamp for the key. Entries whose stamp is not greater than the current iteration are
+     * considered expired and may be overwritten.
+     */
+    public void put(long key, int stamp, int iteration) {
+        int i = slot(key);
+        int reusable = -1;
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                stamps[i] = stamp;
+                return;
+            }
+            if (reusable == -1 && stamps[i] <= iteration) {
+                reusable = i;
+            }
+            i = (i + 1) & mask;
+        }
+        if (reusable != -1) {
+            // the key is not present further in the chain, so an expired slot can take it
+            keys[reusable] = key;
+            stamps[reusable] = stamp;
+            return;
+        }
+        keys[i] = key;
+        stamps[i] = stamp;
+        occupied++;
+        if (occupied > MAX_LOAD * keys.length) {
+            rehash(iteration);
+        }
+    }
+
+    /**
+     * Rebuilds the table with only the active entries, growing it if they alone exceed the load factor.
+     */
+    private void rehash(int iteration) {
+        long[] oldKeys = keys;
+        int[] oldStamps = stamps;
+        int active = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && oldStamps[i] > iteration) active++;
+        }
+        int capacity = oldKeys.length;
+        while (active > MAX_LOAD * capacity / 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && oldStamps[i] > iteration) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                stamps[j] = oldStamps[i];
+                occupied++;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        occupied = 0;
+    }
+}
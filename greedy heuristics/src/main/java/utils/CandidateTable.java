@@ -0,0 +1,414 @@
+package main.java.utils;
+
+import main.java.models.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Candidate neighbors of every node, k per node, best first, as used by the candidate-moves local search, tabu
+ * search and the ant colony. Types:
+ *  - "Nearest": the k other nodes j with the smallest distance(i, j) + cost(j) (ties: smaller ID).
+ *  - "Quadrant": the k / 4 nearest (as above) in each quadrant of the plane around the node, the rest of the k
+ *    filled with the nearest remaining ones; keeps neighbors on every side of nodes at the edge of a cluster.
+ *  - "Alpha": the k nodes with the smallest alpha-nearness (ties: smaller ID) in the minimum 1-tree, see
+ *    AlphaRows.
+ *  - "SwapOrder": the k other nodes j with the smallest 2 * distance(i, j) + cost(j) (ties: smaller ID); with
+ *    k = n - 1 the full order the local search uses to prune node swaps (LocalSearchSolver.addImprovingSwapMoves).
+ *
+ * The table is immutable, flat (k entries per node, get(node, j) = neighbors[node * k + j]) and computed once per
+ * instance, type and k, then shared by every solver - MSLS and ILS create solvers over and over, and each used
+ * to sort its own lists. Tables are cached by the identity of the distance matrix (see InstanceCache), so a lookup
+ * does not touch the matrix. Rows are built in parallel; a "Nearest" row takes O(n) by partial selection
+ * (quickselect of the k smallest keys) plus O(k log k) to sort them.
+ */
+public class CandidateTable {
+    private static final int ROWS_PER_TASK = 64;
+    private static final InstanceCache<CandidateTable> CACHE = new InstanceCache<>();
+
+    /**
+     * Writes the candidates of one node into row[offset .. offset + k), best first. One instance per worker
+     * thread, so it may keep scratch arrays.
+     */
+    private interface RowGenerator {
+        void fill(int node, int[] row, int offset, int k);
+    }
+
+    private final int totalNodes;
+    private final int k;
+    private final int[] neighbors;
+
+    private CandidateTable(int totalNodes, int k, Supplier<RowGenerator> generators) {
+        this.totalNodes = totalNodes;
+        this.k = Math.max(0, Math.min(k, totalNodes - 1));
+        this.neighbors = new int[totalNodes * this.k];
+
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), totalNodes / ROWS_PER_TASK);
+        if (threads <= 1) {
+            RowGenerator generator = generators.get();
+            for (int node = 0; node < totalNodes; node++) {
+                generator.fill(node, neighbors, node * this.k, this.k);
+            }
+            return;
+        }
+
+        AtomicInteger nextRow = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    RowGenerator generator = generators.get();
+                    for (int first = nextRow.getAndAdd(ROWS_PER_TASK); first < totalNodes; first = nextRow.getAndAdd(ROWS_PER_TASK)) {
+                        for (int node = first; node < Math.min(first + ROWS_PER_TASK, totalNodes); node++) {
+                            generator.fill(node, neighbors, node * this.k, this.k);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public static CandidateTable forInstance(int[][] distanceMatrix, int[] costs, int k) {
+        return forInstance(null, distanceMatrix, costs, k, "Nearest");
+    }
+
+    /**
+     * @param nodes coordinates of the nodes, needed by "Quadrant" only
+     * @param type "Nearest", "Quadrant", "Alpha" or "SwapOrder"
+     */
+    public static CandidateTable forInstance(List<Node> nodes, int[][] distanceMatrix, int[] costs, int k, String type) {
+        return CACHE.get(distanceMatrix, costs, type + "/" + k, () -> {
+            int totalNodes = distanceMatrix.length;
+            if (Objects.equals(type, "Nearest")) {
+                return new CandidateTable(totalNodes, k, () -> new NearestRows(distanceMatrix, costs, 1));
+            } else if (Objects.equals(type, "Quadrant")) {
+                return new CandidateTable(totalNodes, k, () -> new QuadrantRows(nodes, distanceMatrix, costs));
+            } else if (Objects.equals(type, "SwapOrder")) {
+                return new CandidateTable(totalNodes, k, () -> new NearestRows(distanceMatrix, costs, 2));
+            } else if (Objects.equals(type, "Alpha")) {
+                AlphaTree tree = new AlphaTree(distanceMatrix, costs);
+                return new CandidateTable(totalNodes, k, () -> new AlphaRows(tree));
+            }
+            throw new IllegalArgumentException("Unknown candidate type: " + type);
+        });
+    }
+
+    /**
+     * (value << 32 | ID): the order of the keys is by value, ties by ID.
+     */
+    private static long key(int value, int node) {
+        return ((long) value << 32) | node;
+    }
+
+    /**
+     * Sorts the first count keys and writes their IDs to the row.
+     */
+    private static void write(long[] keys, int count, int[] row, int offset) {
+        Arrays.sort(keys, 0, count);
+        for (int j = 0; j < count; j++) {
+            row[offset + j] = (int) keys[j];
+        }
+    }
+
+    /**
+     * Rows by distanceWeight * distance(i, j) + cost(j).
+     */
+    private static final class NearestRows implements RowGenerator {
+        private final int[][] distanceMatrix;
+        private final int[] costs;
+        private final int distanceWeight;
+        private final long[] keys;
+
+        private NearestRows(int[][] distanceMatrix, int[] costs, int distanceWeight) {
+            this.distanceMatrix = distanceMatrix;
+            this.costs = costs;
+            this.distanceWeight = distanceWeight;
+            this.keys = new long[distanceMatrix.length];
+        }
+
+        @Override
+        public void fill(int node, int[] row, int offset, int k) {
+            int count = 0;
+            for (int other = 0; other < distanceMatrix.length; other++) {
+                if (other == node) continue;
+                keys[count++] = key(distanceWeight * distanceMatrix[node][other] + costs[other], other);
+            }
+            if (k < count) {
+                select(keys, count, k);
+            }
+            write(keys, k, row, offset);
+        }
+    }
+
+    private static final class QuadrantRows implements RowGenerator {
+        private final List<Node> nodes;
+        private final int[][] distanceMatrix;
+        private final int[] costs;
+        private final long[][] quadrants;
+        private final int[] sizes = new int[4];
+        private final long[] chosen;
+        private final long[] rest;
+        private final boolean[] taken;
+
+        private QuadrantRows(List<Node> nodes, int[][] distanceMatrix, int[] costs) {
+            int totalNodes = distanceMatrix.length;
+            this.nodes = nodes;
+            this.distanceMatrix = distanceMatrix;
+            this.costs = costs;
+            this.quadrants = new long[4][totalNodes];
+            this.chosen = new long[totalNodes];
+            this.rest = new long[totalNodes];
+            this.taken = new boolean[totalNodes];
+        }
+
+        @Override
+        public void fill(int node, int[] row, int offset, int k) {
+            Node center = nodes.get(node);
+            Arrays.fill(sizes, 0);
+            for (int other = 0; other < distanceMatrix.length; other++) {
+                if (other == node) continue;
+                int dx = nodes.get(other).getX() - center.getX();
+                int dy = nodes.get(other).getY() - center.getY();
+                // half-open quadrants, so every point is in exactly one (the center itself in the first)
+                int quadrant = dx >= 0 && dy >= 0 ? 0 : dx < 0 && dy >= 0 ? 1 : dx < 0 ? 2 : 3;
+                quadrants[quadrant][sizes[quadrant]++] = key(distanceMatrix[node][other] + costs[other], other);
+            }
+
+            int count = 0;
+            int perQuadrant = k / 4;
+            for (int q = 0; q < 4; q++) {
+                int m = Math.min(perQuadrant, sizes[q]);
+                if (m < sizes[q]) {
+                    select(quadrants[q], sizes[q], m);
+                }
+                for (int j = 0; j < m; j++) {
+                    chosen[count++] = quadrants[q][j];
+                    taken[(int) quadrants[q][j]] = true;
+                }
+            }
+            if (count < k) {
+                int restCount = 0;
+                for (int q = 0; q < 4; q++) {
+                    for (int j = 0; j < sizes[q]; j++) {
+                        if (!taken[(int) quadrants[q][j]]) {
+                            rest[restCount++] = quadrants[q][j];
+                        }
+                    }
+                }
+                int m = k - count;
+                if (m < restCount) {
+                    select(rest, restCount, m);
+                }
+                System.arraycopy(rest, 0, chosen, count, m);
+                count += m;
+            }
+            for (int j = 0; j < count; j++) {
+                taken[(int) chosen[j]] = false;
+            }
+            write(chosen, count, row, offset);
+        }
+    }
+
+    /**
+     * Minimum 1-tree for alpha-nearness (as in the Lin-Kernighan-Helsgaun heuristic), over the edge weights
+     * w(i, j) = 2 d(i, j) + cost(i) + cost(j) - twice the share of the objective a cycle pays for the edge.
+     * Node 0 is the special node: the tree spans the other nodes (Prim, O(n^2)) and node 0 joins it by its two
+     * cheapest edges. Without subgradient optimization of node penalties: they push the 1-tree towards a tour
+     * through all nodes, while a solution here visits only half of them.
+     */
+    private static final class AlphaTree {
+        private final int[][] distanceMatrix;
+        private final int[] costs;
+        private final int[] parent; // -1 for the root and the special node
+        private final int[] parentWeight;
+        private final int[] order; // tree nodes, parents before children
+        private final int firstSpecial; // ends of the two edges of the special node
+        private final int secondSpecial;
+        private final int secondSpecialWeight;
+
+        private AlphaTree(int[][] distanceMatrix, int[] costs) {
+            this.distanceMatrix = distanceMatrix;
+            this.costs = costs;
+            int n = distanceMatrix.length;
+            this.parent = new int[n];
+            this.parentWeight = new int[n];
+            this.order = new int[Math.max(0, n - 1)];
+            Arrays.fill(parent, -1);
+
+            boolean[] inTree = new boolean[n];
+            int[] bestWeight = new int[n];
+            Arrays.fill(bestWeight, Integer.MAX_VALUE);
+            int count = 0;
+            if (n > 1) {
+                bestWeight[1] = 0;
+            }
+            for (int step = 1; step < n; step++) {
+                int next = -1;
+                for (int node = 1; node < n; node++) {
+                    if (!inTree[node] && (next == -1 || bestWeight[node] < bestWeight[next])) {
+                        next = node;
+                    }
+                }
+                inTree[next] = true;
+                order[count++] = next;
+                parentWeight[next] = parent[next] == -1 ? 0 : bestWeight[next];
+                for (int node = 1; node < n; node++) {
+                    if (!inTree[node] && weight(next, node) < bestWeight[node]) {
+                        bestWeight[node] = weight(next, node);
+                        parent[node] = next;
+                    }
+                }
+            }
+
+            int first = -1;
+            int second = -1;
+            for (int node = 1; node < n; node++) {
+                if (first == -1 || weight(0, node) < weight(0, first)) {
+                    second = first;
+                    first = node;
+                } else if (second == -1 || weight(0, node) < weight(0, second)) {
+                    second = node;
+                }
+            }
+            this.firstSpecial = first;
+            this.secondSpecial = second;
+            this.secondSpecialWeight = second == -1 ? 0 : weight(0, second);
+        }
+
+        private int weight(int a, int b) {
+            return 2 * distanceMatrix[a][b] + costs[a] + costs[b];
+        }
+
+        /**
+         * Alpha of an edge of the special node: how much the 1-tree grows if the edge is forced into it.
+         */
+        private int specialAlpha(int node) {
+            return node == firstSpecial || node == secondSpecial ? 0 : weight(0, node) - secondSpecialWeight;
+        }
+    }
+
+    /**
+     * Alpha-nearness rows: alpha(i, j) = w(i, j) - beta(i, j), where beta(i, j) is the heaviest edge on the tree
+     * path between i and j, i.e. the growth of the minimum 1-tree when it is forced to contain the edge (0 for
+     * tree edges). beta of a whole row is computed in O(n) by walking the tree in order from the node.
+     */
+    private static final class AlphaRows implements RowGenerator {
+        private final AlphaTree tree;
+        private final int[] beta;
+        private final int[] mark;
+        private final long[] keys;
+
+        private AlphaRows(AlphaTree tree) {
+            int n = tree.distanceMatrix.length;
+            this.tree = tree;
+            this.beta = new int[n];
+            this.mark = new int[n];
+            this.keys = new long[n];
+        }
+
+        @Override
+        public void fill(int node, int[] row, int offset, int k) {
+            int n = beta.length;
+            int count = 0;
+            if (node == 0) {
+                for (int other = 1; other < n; other++) {
+                    keys[count++] = key(tree.specialAlpha(other), other);
+                }
+            } else {
+                // beta along the path to the root, then down the rest of the tree
+                int stamp = node + 1;
+                beta[node] = 0;
+                mark[node] = stamp;
+                for (int u = node; tree.parent[u] != -1; u = tree.parent[u]) {
+                    beta[tree.parent[u]] = Math.max(beta[u], tree.parentWeight[u]);
+                    mark[tree.parent[u]] = stamp;
+                }
+                for (int other : tree.order) {
+                    if (mark[other] != stamp) {
+                        beta[other] = Math.max(beta[tree.parent[other]], tree.parentWeight[other]);
+                    }
+                }
+                keys[count++] = key(tree.specialAlpha(node), 0);
+                for (int other = 1; other < n; other++) {
+                    if (other == node) continue;
+                    keys[count++] = key(tree.weight(node, other) - beta[other], other);
+                }
+            }
+            if (k < count) {
+                select(keys, count, k);
+            }
+            write(keys, k, row, offset);
+        }
+    }
+
+    /**
+     * Moves the k smallest of the first count keys to the front (in any order).
+     */
+    private static void select(long[] keys, int count, int k) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            long pivot = keys[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    long swap = keys[i];
+                    keys[i++] = keys[j];
+                    keys[j--] = swap;
+                }
+            }
+            // keys[low..j] <= pivot <= keys[i..high]
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int getTotalNodes() {
+        return totalNodes;
+    }
+
+    /**
+     * The j-th candidate of the node (j < k, nearest first).
+     */
+    public int get(int node, int j) {
+        return neighbors[node * k + j];
+    }
+
+    /**
+     * Copy of the candidates of the node, nearest first.
+     */
+    public int[] neighborsOf(int node) {
+        return Arrays.copyOfRange(neighbors, node * k, node * k + k);
+    }
+}
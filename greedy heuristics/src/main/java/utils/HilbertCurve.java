@@ -0,0 +1,72 @@
+package main.java.utils;
+
+import main.java.models.Node;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Order of the nodes along a Hilbert curve through the bounding box of their coordinates. Nodes close on the
+ * curve are close in the plane, so the order is a cheap tour through all nodes (about 25% above the optimal tour
+ * on uniform points) that takes O(n log n) time.
+ */
+public class HilbertCurve {
+    private static final int ORDER = 16; // the curve fills a 2^16 x 2^16 grid
+
+    private HilbertCurve() {
+    }
+
+    /**
+     * Node IDs sorted by their position on the curve (ties: smaller ID).
+     */
+    public static int[] order(List<Node> nodes) {
+        int n = nodes.size();
+        long minX = Long.MAX_VALUE, minY = Long.MAX_VALUE, maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE;
+        for (Node node : nodes) {
+            minX = Math.min(minX, node.getX());
+            minY = Math.min(minY, node.getY());
+            maxX = Math.max(maxX, node.getX());
+            maxY = Math.max(maxY, node.getY());
+        }
+        long side = Math.max(1, Math.max(maxX - minX, maxY - minY));
+        int cells = (1 << ORDER) - 1;
+
+        // curve position in the upper bits, node ID in the lower ones
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int x = (int) ((nodes.get(i).getX() - minX) * cells / side);
+            int y = (int) ((nodes.get(i).getY() - minY) * cells / side);
+            keys[i] = (index(x, y) << 31) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) (keys[i] & Integer.MAX_VALUE);
+        }
+        return order;
+    }
+
+    /**
+     * Position of the grid point (x, y) on the curve.
+     */
+    public static long index(int x, int y) {
+        int size = 1 << ORDER;
+        long d = 0;
+        for (int s = 1 << (ORDER - 1); s > 0; s >>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant so the sub-curve is in standard orientation
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = size - 1 - x;
+                    y = size - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+}
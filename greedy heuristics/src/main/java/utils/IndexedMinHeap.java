@@ -0,0 +1,122 @@
+package main.java.utils;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of ids from [0, capacity) with a double key each. Keys can be changed and ids removed in
+ * O(log n) because the position of every id in the heap is tracked. Equal keys are ordered by the smaller id.
+ */
+public class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] position; // -1 if the id is not in the heap
+    private final double[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Independent copy of another heap.
+     */
+    public IndexedMinHeap(IndexedMinHeap other) {
+        this.heap = other.heap.clone();
+        this.position = other.position.clone();
+        this.keys = other.keys.clone();
+        this.size = other.size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return position[id] != -1;
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public double getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Adds the id or changes its key.
+     */
+    public void update(int id, double key) {
+        if (position[id] == -1) {
+            heap[size] = id;
+            position[id] = size;
+            keys[id] = key;
+            siftUp(size++);
+            return;
+        }
+        double oldKey = keys[id];
+        keys[id] = key;
+        if (key < oldKey) {
+            siftUp(position[id]);
+        } else if (key > oldKey) {
+            siftDown(position[id]);
+        }
+    }
+
+    public void remove(int id) {
+        int index = position[id];
+        if (index == -1) return;
+        int last = heap[--size];
+        position[id] = -1;
+        if (index == size) return;
+        heap[index] = last;
+        position[last] = index;
+        siftUp(index);
+        siftDown(position[last]);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void siftUp(int index) {
+        int id = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!less(id, heap[parent])) break;
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private void siftDown(int index) {
+        int id = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+            if (!less(heap[child], id)) break;
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+}
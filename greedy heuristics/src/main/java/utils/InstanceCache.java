@@ -0,0 +1,72 @@
+package main.java.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-instance cache of derived data (bounds, candidate tables, orderings).
+ * Entries are keyed by the identity of the distance matrix and held weakly, so they go away together with
+ * the instance; the costs and an extra key (e.g. k and the table type) are compared on every hit, so two
+ * instances never share an entry. Cached values must not reference the distance matrix, or it is never collected.
+ * Lookups are O(entries of the matrix), independent of the instance size.
+ */
+public class InstanceCache<V> {
+
+    private static final class Entry<V> {
+        private final int[] costs;
+        private final Object key;
+        private final V value;
+
+        private Entry(int[] costs, Object key, V value) {
+            this.costs = costs;
+            this.key = key;
+            this.value = value;
+        }
+
+        private boolean matches(int[] otherCosts, Object otherKey) {
+            return (costs == otherCosts || Arrays.equals(costs, otherCosts)) && Objects.equals(key, otherKey);
+        }
+    }
+
+    private final Map<int[][], List<Entry<V>>> entries = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the cached value for the instance and key, computing it (outside of the lock) if it is missing.
+     * If two threads compute the same value concurrently, the first one stored is returned to both.
+     */
+    public V get(int[][] distanceMatrix, int[] costs, Object key, Supplier<V> compute) {
+        V cached = find(distanceMatrix, costs, key);
+        if (cached != null) {
+            return cached;
+        }
+        V value = compute.get();
+        synchronized (entries) {
+            V stored = find(distanceMatrix, costs, key);
+            if (stored != null) {
+                return stored;
+            }
+            entries.computeIfAbsent(distanceMatrix, m -> new ArrayList<>()).add(new Entry<>(costs, key, value));
+        }
+        return value;
+    }
+
+    private V find(int[][] distanceMatrix, int[] costs, Object key) {
+        synchronized (entries) {
+            List<Entry<V>> list = entries.get(distanceMatrix);
+            if (list != null) {
+                for (Entry<V> entry : list) {
+                    if (entry.matches(costs, key)) {
+                        return entry.value;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package main.java.utils;
+
+import java.util.Arrays;
+
+/**
+ * Lower bound on the score of any cycle through ceil(n / 2) nodes, from a Lagrangian relaxation of the
+ * degree constraints.
+ *
+ * In a cycle every selected node has exactly two tour edges, so with multipliers lambda the score equals
+ * sum over selected i of (cost_i - 2 lambda_i) + sum over tour edges ij of (d_ij + lambda_i + lambda_j).
+ * Charging every edge half to each of its ends and letting each selected node take its two cheapest edges
+ * (to any node) gives for node i the value v_i = cost_i - lambda_i + (two smallest d_ij + lambda_j) / 2,
+ * and the bound L(lambda) = sum of the ceil(n / 2) smallest v_i. L is maximized by subgradient ascent:
+ * a node picked by more (fewer) selected nodes than its own degree gets a higher (lower) multiplier.
+ * The 1-tree bound of the TSP needs the node set to be known, while here it is part of the problem
+ * (a minimum tree over k of n nodes is itself NP-hard), so this relaxation keeps the per-node form.
+ *
+ * The node values at the best multipliers also bound every solution that contains (or leaves out) a given
+ * node, which lets InstanceReduction fix nodes in or out of the cycle.
+ *
+ * Bounds are computed once per instance and cached (see InstanceCache).
+ */
+public class LagrangianLowerBound {
+    private static final int MAX_ITERATIONS = 1000;
+    private static final int PATIENCE = 30; // iterations without improvement before the step is halved
+    private static final double MIN_STEP_SCALE = 1e-4;
+    private static final InstanceCache<LagrangianLowerBound> CACHE = new InstanceCache<>();
+
+    private final int bound;
+    private final int iterations;
+    private final double boundValue;
+    private final double[] nodeValues; // v_i at the best multipliers
+    private final double lastSelectedValue; // largest of the targetNodesCount smallest v_i
+    private final double firstUnselectedValue; // next v_i after them (infinite if all nodes are selected)
+
+    private LagrangianLowerBound(int[][] distanceMatrix, int[] costs, int m) {
+        int n = distanceMatrix.length;
+        int upperBound = nearestNeighbourScore(distanceMatrix, costs, m);
+
+        double[] lambda = new double[n];
+        double[] values = new double[n];
+        int[] first = new int[n];
+        int[] second = new int[n];
+        Integer[] order = new Integer[n];
+        double[] subgradient = new double[n];
+        double[] bestValues = new double[n];
+        double best = Double.NEGATIVE_INFINITY;
+        double stepScale = 2.0;
+        int sinceImprovement = 0;
+        int iteration = 0;
+        for (; iteration < MAX_ITERATIONS && stepScale > MIN_STEP_SCALE; iteration++) {
+            for (int i = 0; i < n; i++) {
+                double min1 = Double.MAX_VALUE;
+                double min2 = Double.MAX_VALUE;
+                int arg1 = -1;
+                int arg2 = -1;
+                for (int j = 0; j < n; j++) {
+                    if (j == i) continue;
+                    double value = distanceMatrix[i][j] + lambda[j];
+                    if (value < min1) {
+                        min2 = min1;
+                        arg2 = arg1;
+                        min1 = value;
+                        arg1 = j;
+                    } else if (value < min2) {
+                        min2 = value;
+                        arg2 = j;
+                    }
+                }
+                first[i] = arg1;
+                second[i] = arg2;
+                values[i] = costs[i] - lambda[i] + (min1 + min2) / 2;
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+            double lagrangian = 0;
+            Arrays.fill(subgradient, 0);
+            for (int k = 0; k < m; k++) {
+                int i = order[k];
+                lagrangian += values[i];
+                subgradient[i] -= 1;
+                subgradient[first[i]] += 0.5;
+                subgradient[second[i]] += 0.5;
+            }
+            if (lagrangian > best + 1e-9) {
+                best = lagrangian;
+                System.arraycopy(values, 0, bestValues, 0, n);
+                sinceImprovement = 0;
+            } else if (++sinceImprovement >= PATIENCE) {
+                stepScale /= 2;
+                sinceImprovement = 0;
+            }
+
+            double norm = 0;
+            for (double g : subgradient) {
+                norm += g * g;
+            }
+            if (norm == 0) {
+                break; // the relaxed solution is a set of consistent degrees, no better multipliers exist
+            }
+            double step = stepScale * (upperBound - lagrangian) / norm;
+            for (int i = 0; i < n; i++) {
+                lambda[i] += step * subgradient[i];
+            }
+        }
+        // scores are integers
+        this.bound = (int) Math.ceil(best - 1e-6);
+        this.boundValue = best;
+        this.iterations = iteration;
+        this.nodeValues = bestValues;
+        double[] sorted = bestValues.clone();
+        Arrays.sort(sorted);
+        this.lastSelectedValue = sorted[m - 1];
+        this.firstUnselectedValue = m < n ? sorted[m] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Score of the best nearest-neighbour path (closed into a cycle) over a few start nodes, as the target
+     * value of the subgradient steps.
+     */
+    private static int nearestNeighbourScore(int[][] distanceMatrix, int[] costs, int m) {
+        int n = distanceMatrix.length;
+        int best = Integer.MAX_VALUE;
+        boolean[] visited = new boolean[n];
+        for (int start = 0; start < n; start += Math.max(1, n / 10)) {
+            Arrays.fill(visited, false);
+            visited[start] = true;
+            int current = start;
+            int score = costs[start];
+            for (int step = 1; step < m; step++) {
+                int next = -1;
+                for (int j = 0; j < n; j++) {
+                    if (!visited[j] && (next == -1 || distanceMatrix[current][j] + costs[j] < distanceMatrix[current][next] + costs[next])) {
+                        next = j;
+                    }
+                }
+                score += distanceMatrix[current][next] + costs[next];
+                visited[next] = true;
+                current = next;
+            }
+            score += distanceMatrix[current][start];
+            best = Math.min(best, score);
+        }
+        return best;
+    }
+
+    public static LagrangianLowerBound forInstance(int[][] distanceMatrix, int[] costs) {
+        return forInstance(distanceMatrix, costs, (int) Math.ceil(distanceMatrix.length / 2.0));
+    }
+
+    /**
+     * Bound for cycles through targetNodesCount nodes (e.g. of a reduced instance, see InstanceReduction).
+     */
+    public static LagrangianLowerBound forInstance(int[][] distanceMatrix, int[] costs, int targetNodesCount) {
+        return CACHE.get(distanceMatrix, costs, targetNodesCount,
+                () -> new LagrangianLowerBound(distanceMatrix, costs, targetNodesCount));
+    }
+
+    public int getBound() {
+        return bound;
+    }
+
+    /**
+     * Lower bound on the score of every cycle that contains the node.
+     */
+    public double getBoundWithNode(int node) {
+        return nodeValues[node] <= lastSelectedValue ? boundValue : boundValue - lastSelectedValue + nodeValues[node];
+    }
+
+    /**
+     * Lower bound on the score of every cycle that does not contain the node.
+     */
+    public double getBoundWithoutNode(int node) {
+        return nodeValues[node] > lastSelectedValue ? boundValue : boundValue - nodeValues[node] + firstUnselectedValue;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Relative gap of the score to the bound, e.g. 0.05 = the score is at most 5% above the optimum.
+     */
+    public double getGap(int score) {
+        return (score - bound) / (double) bound;
+    }
+
+    /**
+     * Highest score that is within the given relative gap of the bound.
+     */
+    public int getScoreWithinGap(double gap) {
+        return (int) Math.floor(bound * (1 + gap));
+    }
+}
@@ -0,0 +1,60 @@
+package main.java.utils;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Set of ints from [0, capacity) with O(1) add, remove, contains and uniform random sampling.
+ * Members are kept densely in an array; index[v] is the position of v in it, or -1 if v is not a member.
+ * Removal moves the last member into the freed slot.
+ */
+public class SparseIntSet {
+    private final int[] dense;
+    private final int[] index;
+    private int size;
+
+    public SparseIntSet(int capacity) {
+        this.dense = new int[capacity];
+        this.index = new int[capacity];
+        Arrays.fill(index, -1);
+    }
+
+    public boolean contains(int value) {
+        return index[value] != -1;
+    }
+
+    public void add(int value) {
+        if (index[value] != -1) return;
+        dense[size] = value;
+        index[value] = size;
+        size++;
+    }
+
+    public void remove(int value) {
+        int position = index[value];
+        if (position == -1) return;
+        int last = dense[--size];
+        dense[position] = last;
+        index[last] = position;
+        index[value] = -1;
+    }
+
+    public int get(int position) {
+        return dense[position];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int randomMember(SplittableRandom random) {
+        return dense[random.nextInt(size)];
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            index[dense[i]] = -1;
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,227 @@
+package main.java.utils;
+
+import main.java.models.Node;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the node coordinates answering "which remaining node j minimizes d(i, j) + cost_j" with
+ * removal of nodes, for the nearest neighbor steps of the constructors.
+ *
+ * Distances are the rounded Euclidean distances of CSVParser, computed from the coordinates, so no distance
+ * matrix is needed. The grid has about two nodes per cell and every cell keeps the lowest cost of its remaining
+ * nodes. A query visits rings of cells around the query node; a cell is skipped when its distance to the query
+ * node plus its lowest cost cannot beat the best node found so far, and the search stops once a whole ring is
+ * farther than that (using the lowest cost of all remaining nodes). Nodes with a large cost close by therefore
+ * do not hide cheap nodes a bit farther away, and a query only looks at the cells near its answer instead of
+ * all n nodes. Ties are broken by the smaller ID, as in the linear scans.
+ */
+public class SpatialGridIndex {
+    private static final int NODES_PER_CELL = 2;
+    private static final double ROUNDING_SLACK = 0.501; // a rounded distance is at most 0.5 below the exact one
+
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] costs;
+    private final int minX;
+    private final int minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    private final int[] cellStart; // nodes of cell c are cellNodes[cellStart[c] .. cellStart[c] + cellCount[c])
+    private final int[] cellNodes;
+    private final int[] cellCount;
+    private final int[] cellMinCost;
+    private final int[] cellOf;
+    private final int[] slot; // position of a node in cellNodes
+
+    private final int[] nodesByCost;
+    private int cheapestRemaining; // index in nodesByCost of the cheapest node not removed yet
+    private final boolean[] removed;
+    private int size;
+
+    public SpatialGridIndex(List<Node> nodes, int[] costs) {
+        int n = nodes.size();
+        this.xs = new int[n];
+        this.ys = new int[n];
+        this.costs = costs;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            xs[i] = nodes.get(i).getX();
+            ys[i] = nodes.get(i).getY();
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        this.minX = n > 0 ? minX : 0;
+        this.minY = n > 0 ? minY : 0;
+        double width = n > 0 ? maxX - minX + 1 : 1;
+        double height = n > 0 ? maxY - minY + 1 : 1;
+        this.cellSize = Math.max(1.0, Math.sqrt(width * height * NODES_PER_CELL / Math.max(1, n)));
+        this.columns = (int) (width / cellSize) + 1;
+        this.rows = (int) (height / cellSize) + 1;
+
+        int cells = columns * rows;
+        this.cellStart = new int[cells + 1];
+        this.cellNodes = new int[n];
+        this.cellCount = new int[cells];
+        this.cellMinCost = new int[cells];
+        this.cellOf = new int[n];
+        this.slot = new int[n];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = cellIndex(xs[i], ys[i]);
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(costs[a], costs[b]));
+        this.nodesByCost = new int[n];
+        for (int i = 0; i < n; i++) {
+            nodesByCost[i] = order[i];
+        }
+        this.removed = new boolean[n];
+        reset();
+    }
+
+    /**
+     * Copy with its own removal state; the grid itself is shared, so copying is cheaper than building a new index.
+     */
+    public SpatialGridIndex(SpatialGridIndex other) {
+        this.xs = other.xs;
+        this.ys = other.ys;
+        this.costs = other.costs;
+        this.minX = other.minX;
+        this.minY = other.minY;
+        this.cellSize = other.cellSize;
+        this.columns = other.columns;
+        this.rows = other.rows;
+        this.cellStart = other.cellStart;
+        this.cellOf = other.cellOf;
+        this.nodesByCost = other.nodesByCost;
+        this.cellNodes = other.cellNodes.clone();
+        this.cellCount = other.cellCount.clone();
+        this.cellMinCost = other.cellMinCost.clone();
+        this.slot = other.slot.clone();
+        this.removed = other.removed.clone();
+        this.cheapestRemaining = other.cheapestRemaining;
+        this.size = other.size;
+    }
+
+    /**
+     * Puts all nodes back into the index.
+     */
+    public void reset() {
+        Arrays.fill(removed, false);
+        Arrays.fill(cellCount, 0);
+        Arrays.fill(cellMinCost, Integer.MAX_VALUE);
+        for (int i = 0; i < cellOf.length; i++) {
+            int c = cellOf[i];
+            slot[i] = cellStart[c] + cellCount[c]++;
+            cellNodes[slot[i]] = i;
+            cellMinCost[c] = Math.min(cellMinCost[c], costs[i]);
+        }
+        cheapestRemaining = 0;
+        size = cellOf.length;
+    }
+
+    public void remove(int node) {
+        if (removed[node]) return;
+        removed[node] = true;
+        size--;
+        int c = cellOf[node];
+        int lastSlot = cellStart[c] + --cellCount[c];
+        int last = cellNodes[lastSlot];
+        cellNodes[slot[node]] = last;
+        slot[last] = slot[node];
+        cellNodes[lastSlot] = node;
+        slot[node] = lastSlot;
+        if (costs[node] == cellMinCost[c]) {
+            int minCost = Integer.MAX_VALUE;
+            for (int s = cellStart[c]; s < lastSlot; s++) {
+                minCost = Math.min(minCost, costs[cellNodes[s]]);
+            }
+            cellMinCost[c] = minCost;
+        }
+        while (cheapestRemaining < nodesByCost.length && removed[nodesByCost[cheapestRemaining]]) {
+            cheapestRemaining++;
+        }
+    }
+
+    public boolean contains(int node) {
+        return !removed[node];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remaining node minimizing distance from the given node plus cost (ties: smallest ID), or -1 if none is left.
+     * The given node itself is skipped only if it was removed.
+     */
+    public int nearest(int fromNode) {
+        if (size == 0) return -1;
+        int px = xs[fromNode];
+        int py = ys[fromNode];
+        int centerColumn = (int) ((px - minX) / cellSize);
+        int centerRow = (int) ((py - minY) / cellSize);
+        int minCost = costs[nodesByCost[cheapestRemaining]];
+        int maxRing = Math.max(Math.max(centerColumn, columns - 1 - centerColumn), Math.max(centerRow, rows - 1 - centerRow));
+
+        int best = -1;
+        long bestScore = Long.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every cell of the ring is at least ring - 1 cells away
+            if (best != -1 && (ring - 1) * cellSize - ROUNDING_SLACK + minCost > bestScore) break;
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) continue;
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int column = centerColumn - ring; column <= centerColumn + ring; column += Math.max(1, step)) {
+                    if (column < 0 || column >= columns) continue;
+                    int c = row * columns + column;
+                    if (cellCount[c] == 0) continue;
+                    if (best != -1 && distanceToCell(px, py, column, row) - ROUNDING_SLACK + cellMinCost[c] > bestScore) continue;
+                    for (int s = cellStart[c], end = cellStart[c] + cellCount[c]; s < end; s++) {
+                        int node = cellNodes[s];
+                        long score = distance(fromNode, node) + costs[node];
+                        if (score < bestScore || (score == bestScore && node < best)) {
+                            bestScore = score;
+                            best = node;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    public int distance(int a, int b) {
+        long dx = xs[a] - xs[b];
+        long dy = ys[a] - ys[b];
+        return (int) Math.round(Math.sqrt(dx * dx + dy * dy));
+    }
+
+    private double distanceToCell(int px, int py, int column, int row) {
+        double left = minX + column * cellSize;
+        double top = minY + row * cellSize;
+        double dx = Math.max(0, Math.max(left - px, px - (left + cellSize)));
+        double dy = Math.max(0, Math.max(top - py, py - (top + cellSize)));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private int cellIndex(int x, int y) {
+        int column = (int) ((x - minX) / cellSize);
+        int row = (int) ((y - minY) / cellSize);
+        return row * columns + column;
+    }
+}
@@ -0,0 +1,74 @@
+package main.java.utils;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zobrist hashing of tours: the hash is the XOR of random 64-bit keys of the undirected edges and of the
+ * selected nodes. It does not depend on the start position or the direction of the cycle, and moves can
+ * update it in O(1) by XOR-ing out the removed features and XOR-ing in the added ones.
+ * Keys are generated from a fixed seed and shared per instance size, so hashes are comparable between solvers.
+ */
+public class ZobristTourHasher {
+    private static final long SEED = 0x5DEECE66DL;
+    private static final Map<Integer, ZobristTourHasher> CACHE = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final long[] edgeKeys; // symmetric size * size table
+    private final long[] nodeKeys;
+
+    private ZobristTourHasher(int size) {
+        this.size = size;
+        this.edgeKeys = new long[size * size];
+        this.nodeKeys = new long[size];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int a = 0; a < size; a++) {
+            nodeKeys[a] = random.nextLong();
+            for (int b = a + 1; b < size; b++) {
+                long key = random.nextLong();
+                edgeKeys[a * size + b] = key;
+                edgeKeys[b * size + a] = key;
+            }
+        }
+    }
+
+    public static ZobristTourHasher forSize(int size) {
+        return CACHE.computeIfAbsent(size, ZobristTourHasher::new);
+    }
+
+    public long edge(int a, int b) {
+        return edgeKeys[a * size + b];
+    }
+
+    public long node(int a) {
+        return nodeKeys[a];
+    }
+
+    /**
+     * Full hash of a closed path (first node repeated at the end).
+     */
+    public long hash(int[] path) {
+        long hash = 0;
+        for (int i = 0; i < path.length - 1; i++) {
+            hash ^= nodeKeys[path[i]] ^ edge(path[i], path[i + 1]);
+        }
+        return hash;
+    }
+
+    /**
+     * Hash change of replacing oldNode (between pred and succ) by newNode.
+     */
+    public long nodeSwapDelta(int pred, int oldNode, int newNode, int succ) {
+        return nodeKeys[oldNode] ^ nodeKeys[newNode]
+                ^ edge(pred, oldNode) ^ edge(oldNode, succ)
+                ^ edge(pred, newNode) ^ edge(newNode, succ);
+    }
+
+    /**
+     * Hash change of the 2-opt move replacing edges (a, b), (c, d) by (a, c), (b, d).
+     */
+    public long edgeExchangeDelta(int a, int b, int c, int d) {
+        return edge(a, b) ^ edge(c, d) ^ edge(a, c) ^ edge(b, d);
+    }
+}